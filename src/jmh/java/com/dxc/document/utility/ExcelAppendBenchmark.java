@@ -0,0 +1,103 @@
+package com.dxc.document.utility;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One upload's worth of rows appended to workbooks that already hold 0, 1k and 10k rows. Each invocation
+ * starts from a fresh copy of the prepared workbook, so the cost does not drift as rows pile up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExcelAppendBenchmark {
+
+    private static final int BATCH_ROWS = 10;
+
+    @Param({"0", "1000", "10000"})
+    public int existingRows;
+
+    @Param({"ESTIMATE", "AUTOSIZE"})
+    public ColumnWidthEstimator.Mode widthMode;
+
+    private Path dir;
+    private Path base;
+    private Path target;
+    private Set<String> headers;
+    private List<Map<String, String>> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("excel-benchmark-");
+        base = dir.resolve("base.xlsx");
+        target = dir.resolve("target.xlsx");
+
+        List<Map<String, String>> rows = new ArrayList<>(BATCH_ROWS);
+        for (int i = 0; i < BATCH_ROWS; i++) {
+            rows.add(PdfExtractor.extractFields(SyntheticJobDescription.text(20, 0.5, i)));
+        }
+        headers = rows.get(0).keySet();
+        batch = rows;
+
+        if (existingRows > 0) {
+            List<Map<String, String>> existing = new ArrayList<>(existingRows);
+            for (int i = 0; i < existingRows; i++) {
+                existing.add(rows.get(i % BATCH_ROWS));
+            }
+            ExcelWriterUtil.appendDataToExcel(base.toString(), headers, existing, widthMode);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetWorkbook() throws IOException {
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(Path.of(target + ".widths"));
+        if (existingRows > 0) {
+            Files.copy(base, target, StandardCopyOption.REPLACE_EXISTING);
+            Path widths = Path.of(base + ".widths");
+            if (Files.exists(widths)) {
+                Files.copy(widths, Path.of(target + ".widths"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void appendDataToExcel() throws IOException {
+        ExcelWriterUtil.appendDataToExcel(target.toString(), headers, batch, widthMode);
+    }
+}
@@ -0,0 +1,86 @@
+package com.dxc.document.utility;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Extraction hot path, end to end and by stage, over synthetic documents of growing size and bullet density.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    // Body lines of each large section: roughly 1, 4 and 40 pages
+    @Param({"10", "100", "1000"})
+    public int sectionLines;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double bulletDensity;
+
+    private Path dir;
+    private File pdf;
+    private String rawText;
+    private ExtractionTemplate template;
+    private SectionTokenizer.Tokens tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("extraction-benchmark-");
+        pdf = dir.resolve("job-description.pdf").toFile();
+        SyntheticJobDescription.writePdf(pdf.toPath(), SyntheticJobDescription.lines(sectionLines, bulletDensity, 42));
+        rawText = SyntheticJobDescription.text(sectionLines, bulletDensity, 42);
+        template = ExtractionTemplates.builtIn().fallback();
+        tokens = template.tokenizer().scan(template.cleaner().clean(rawText));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(pdf.toPath());
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public Map<String, String> extractFieldsFromPdf() throws IOException {
+        return PdfExtractor.extractFieldsFromPdf(pdf);
+    }
+
+    // Everything after PDF text stripping: cleaning, tokenizing and formatting every field
+    @Benchmark
+    public Map<String, String> extractFieldsFromText() {
+        return PdfExtractor.extractFields(rawText);
+    }
+
+    @Benchmark
+    public String cleanText() {
+        return template.cleaner().clean(rawText);
+    }
+
+    // The largest section, formatted from already tokenized text
+    @Benchmark
+    public String extractBulletsOrPlainSection() {
+        return PdfExtractor.extractBulletsOrPlainSection(template, tokens, "JOB RESPONSIBILITIES", "QUALIFICATIONS / SKILLS",
+                new ExtractionReport("benchmark"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.dxc.document.utility;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+/**
+ * Generates job description documents shaped like the real template: labels, the template's instruction
+ * lines, sections with subheadings, bullets, sub-bullets and wrapped continuation lines, plus the junk
+ * lines (stamps, approval footers, page numbers) the cleaner removes. Seeded, so every run sees the same text.
+ */
+final class SyntheticJobDescription {
+
+    private static final int LINES_PER_PAGE = 50;
+    private static final String[] WORDS = {
+            "manage", "global", "supply", "planning", "quality", "partners", "process", "reporting",
+            "budget", "teams", "regulatory", "standards", "delivery", "stakeholders", "forecast", "review"};
+
+    private SyntheticJobDescription() {
+    }
+
+    /**
+     * Lines of one document. {@code sectionLines} is the body length of each of the larger sections,
+     * {@code bulletDensity} the share of those lines that are bullets (the rest is plain prose).
+     */
+    static List<String> lines(int sectionLines, double bulletDensity, long seed) {
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>();
+        lines.add("JOB DESCRIPTION");
+        lines.add(random.nextInt(90000) + 10000 + "abc\\scan");
+        lines.add("JOB TITLE: (Grade 5) Senior " + word(random) + " Analyst");
+        lines.add("REPORTS TO: Director, " + word(random));
+        lines.add("DIVISION/BUSINESS LINE: Global Operations");
+        lines.add("VERSION DATE: 2024-01-01");
+        lines.add("SUB DIVISION: Supply");
+        lines.add("DEPARTMENT NAME: Planning");
+        lines.add("LOCATION(S): New York, NY");
+
+        section(lines, random, "JOB SUMMARY", "Summarize the primary purpose & key accountabilities of the job",
+                Math.max(sectionLines / 4, 1), bulletDensity / 2);
+        section(lines, random, "JOB RESPONSIBILITIES", "Indicate the primary responsibilities of the job",
+                sectionLines, bulletDensity);
+        section(lines, random, "QUALIFICATIONS / SKILLS", "Indicate qualifications and skills that are necessary",
+                sectionLines, bulletDensity);
+        lines.add("PREFERRED QUALIFICATIONS");
+        lines.add("- " + sentence(random));
+        section(lines, random, "NON-STANDARD WORK SCHEDULE, TRAVEL OR ENVIRONMENT REQUIREMENTS",
+                "Include any work schedule, travel requirements", 2, 0);
+        section(lines, random, "ORGANIZATIONAL RELATIONSHIPS", "Provide the primary groups the job interacts with",
+                Math.max(sectionLines / 4, 1), bulletDensity);
+        section(lines, random, "RESOURCES MANAGED", "Summary of resources managed", 3, 0);
+
+        // Footers the cleaner has to drop, one per page as in a real export
+        int pages = (lines.size() + LINES_PER_PAGE - 1) / LINES_PER_PAGE;
+        for (int page = pages; page >= 1; page--) {
+            int at = Math.min(page * LINES_PER_PAGE - 2, lines.size());
+            lines.add(at, "Page " + page + " of " + pages);
+            lines.add(at, "Approved On: 01-Jan-2024 10:00 GMT");
+        }
+        return lines;
+    }
+
+    static String text(int sectionLines, double bulletDensity, long seed) {
+        return String.join("\n", lines(sectionLines, bulletDensity, seed)) + "\n";
+    }
+
+    static void writePdf(Path file, List<String> lines) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (int from = 0; from < lines.size(); from += LINES_PER_PAGE) {
+                PDPage page = new PDPage(PDRectangle.LETTER);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 9);
+                    content.setLeading(14);
+                    content.newLineAtOffset(40, 750);
+                    for (String line : lines.subList(from, Math.min(from + LINES_PER_PAGE, lines.size()))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+    }
+
+    private static void section(List<String> lines, Random random, String header, String instruction,
+                                int bodyLines, double bulletDensity) {
+        lines.add(header);
+        lines.add(instruction);
+        for (int i = 0; i < bodyLines; i++) {
+            if (i > 0 && i % 12 == 0) {
+                lines.add(capitalize(word(random)) + " " + capitalize(word(random)) + ":");
+            }
+            if (random.nextDouble() >= bulletDensity) {
+                lines.add(capitalize(sentence(random)) + ".");
+                continue;
+            }
+            int kind = random.nextInt(10);
+            if (kind < 2) {
+                lines.add("o " + sentence(random));
+            } else {
+                lines.add("- " + capitalize(sentence(random)));
+                if (kind < 4) {
+                    lines.add("  " + sentence(random));
+                }
+            }
+        }
+    }
+
+    private static String sentence(Random random) {
+        StringBuilder sentence = new StringBuilder(word(random));
+        for (int i = 0, words = 6 + random.nextInt(10); i < words; i++) {
+            sentence.append(' ').append(word(random));
+        }
+        return sentence.toString();
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -1,5 +1,7 @@
 package com.dxc.document;
 
+import java.util.Arrays;
+
 import org.apache.catalina.Context;
 import org.apache.tomcat.util.http.fileupload.FileUploadBase;
 import org.springframework.boot.SpringApplication;
@@ -10,11 +12,18 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.dxc.document.service.BatchConverter;
+
 
 @SpringBootApplication
 public class DocumentConverterApplication {
 
 	public static void main(String[] args) {
+		// "batch ..." converts local files without starting the web application
+		if (args.length > 0 && "batch".equals(args[0])) {
+			BatchConverter.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
 		SpringApplication.run(DocumentConverterApplication.class, args);
 	}
 
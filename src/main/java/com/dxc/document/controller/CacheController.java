@@ -0,0 +1,23 @@
+package com.dxc.document.controller;
+
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dxc.document.service.ExtractionCache;
+
+@RestController
+public class CacheController {
+
+    private final ExtractionCache cache;
+
+    public CacheController(ExtractionCache cache) {
+        this.cache = cache;
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+}
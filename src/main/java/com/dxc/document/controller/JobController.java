@@ -0,0 +1,103 @@
+package com.dxc.document.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dxc.document.service.ConversionJob;
+import com.dxc.document.service.ExcelOutputService;
+import com.dxc.document.service.JobService;
+import com.dxc.document.service.OutputFormat;
+
+@RestController
+public class JobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobController.class);
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping(value = "/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitJob(@RequestParam("files") MultipartFile[] files,
+            @RequestParam(value = "output", defaultValue = ExcelOutputService.DEFAULT_OUTPUT) String output,
+            @RequestParam(value = "format", required = false) String format) {
+        if (files.length == 0) {
+            logger.warn("Job submitted with no files.");
+            return ResponseEntity.badRequest().body("No files uploaded.");
+        }
+        if (!ExcelOutputService.isValidName(output)) {
+            return ResponseEntity.badRequest().body("Invalid output name.");
+        }
+        OutputFormat outputFormat;
+        try {
+            outputFormat = format == null ? null : OutputFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown output format.");
+        }
+
+        try {
+            ConversionJob job = jobService.submit(files, output, outputFormat);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/jobs/" + job.getId())
+                    .body(Map.of("id", job.getId(),
+                            "status", job.getStatus(),
+                            "statusUrl", "/jobs/" + job.getId(),
+                            "resultUrl", "/jobs/" + job.getId() + "/result"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            logger.warn("Job rejected, queue full.");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body("Too many jobs queued. Please retry later.");
+        } catch (IOException e) {
+            logger.error("Failed to queue job: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to queue files.");
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> jobStatus(@PathVariable String id) {
+        ConversionJob job = jobService.get(id);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown job: " + id);
+        }
+        return ResponseEntity.ok(job.toStatus());
+    }
+
+    @GetMapping("/jobs/{id}/result")
+    public ResponseEntity<?> jobResult(@PathVariable String id) {
+        ConversionJob job = jobService.get(id);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown job: " + id);
+        }
+        if (job.getStatus() != ConversionJob.Status.COMPLETED || job.getResult() == null
+                || !Files.exists(job.getResult())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.toStatus());
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=job_" + id + "."
+                        + job.getFormat().extension())
+                .contentType(MediaType.parseMediaType(job.getFormat().contentType()))
+                .body(new FileSystemResource(job.getResult()));
+    }
+}
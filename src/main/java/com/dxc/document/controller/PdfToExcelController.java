@@ -1,67 +1,107 @@
 package com.dxc.document.controller;
 
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.dxc.document.utility.ExcelWriterUtil;
-import com.dxc.document.utility.PdfExtractor;
+import com.dxc.document.service.BatchSummary;
+import com.dxc.document.service.DownloadSnapshot;
+import com.dxc.document.service.ExcelOutputService;
+import com.dxc.document.service.ExtractionBatch;
+import com.dxc.document.service.ExtractionResult;
+import com.dxc.document.service.ExtractionService;
+import com.dxc.document.service.OutputFormat;
+import com.dxc.document.service.OutputMismatchException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 public class PdfToExcelController {
 
 	
 	private static final Logger logger = LoggerFactory.getLogger(PdfToExcelController.class);
-    private static final String EXCEL_PATH = "sheet.xlsx";
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ExtractionService extractionService;
+    private final ExcelOutputService excelOutputService;
+    private final ObjectMapper objectMapper;
+
+    public PdfToExcelController(ExtractionService extractionService, ExcelOutputService excelOutputService,
+            ObjectMapper objectMapper) {
+        this.extractionService = extractionService;
+        this.excelOutputService = excelOutputService;
+        this.objectMapper = objectMapper;
+    }
 
     @PostMapping(value = "/uploadfile", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> uploadAndAppendExcel(@RequestParam("files") MultipartFile[] files) {
+    public ResponseEntity<?> uploadAndAppendExcel(@RequestParam("files") MultipartFile[] files,
+            @RequestParam(value = "output", defaultValue = ExcelOutputService.DEFAULT_OUTPUT) String output,
+            @RequestParam(value = "format", required = false) String format) {
         if (files.length == 0) {
             logger.warn("Upload attempt with no files.");
             return ResponseEntity.badRequest().body("No files uploaded.");
         }
-
+        if (!ExcelOutputService.isValidName(output)) {
+            return ResponseEntity.badRequest().body("Invalid output name.");
+        }
+        OutputFormat requested;
         try {
-            Map<String, String> headers = null;
-            List<Map<String, String>> extractedRows = new ArrayList<>();
-
-            for (MultipartFile file : files) {
-                File convFile = convertToFile(file);
-                logger.info("Extracting data from: {}", file.getOriginalFilename());
+            requested = format == null ? null : OutputFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown output format.");
+        }
+        // Checked before extracting, so a format clash does not cost the whole batch's work
+        OutputFormat outputFormat;
+        try {
+            outputFormat = excelOutputService.resolveFormat(output, requested);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
-                Map<String, String> extractedData = PdfExtractor.extractFieldsFromPdf(convFile);
-                extractedRows.add(extractedData);
+        try {
+            BatchSummary summary = BatchSummary.of(extractionService.extractAll(files));
 
-                if (headers == null) {
-                    headers = new LinkedHashMap<>(extractedData);
-                }
+            if (!summary.hasRows()) {
+                logger.warn("No file in the batch could be extracted.");
+                return ResponseEntity.unprocessableEntity().body(summary.toReport("No files could be processed."));
             }
 
-            ExcelWriterUtil.appendDataToExcel(EXCEL_PATH, headers.keySet(), extractedRows);
-            logger.info("Data appended to Excel successfully. Path: {}", EXCEL_PATH);
+            excelOutputService.append(output, outputFormat, summary.getHeaders(), summary.getRows());
+            logger.info("Batch saved to {}: {} ok, {} failed", output, summary.getSucceeded().size(), summary.getFailed().size());
 
-            return ResponseEntity.ok("Batch processed and data saved.");
+            return ResponseEntity.ok(summary.toReport("Batch processed and data saved."));
+        } catch (OutputMismatchException e) {
+            // The output was created in another format meanwhile, or its CSV header cannot take these columns
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error during file processing: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -69,37 +109,204 @@ public class PdfToExcelController {
         }
     }
 
+    /**
+     * Same upload, but the response is a file of just this batch's rows, in the output's format, each row
+     * written as soon as its PDF is extracted. Only the first extracted file is awaited, so a batch where
+     * nothing could be extracted still gets the 422 report. The header is that file's columns followed by
+     * every other column the batch's templates can produce, as later files may match another template.
+     * The rows are appended to the output as well, before the response is completed, so a failed append
+     * shows up as a broken download.
+     */
+    @PostMapping(value = "/uploadfile", params = "download=true", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> uploadAndStreamExcel(@RequestParam("files") MultipartFile[] files,
+            @RequestParam(value = "output", defaultValue = ExcelOutputService.DEFAULT_OUTPUT) String output,
+            @RequestParam(value = "format", required = false) String format) {
+        if (files.length == 0) {
+            logger.warn("Upload attempt with no files.");
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(text("No files uploaded."));
+        }
+        if (!ExcelOutputService.isValidName(output)) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(text("Invalid output name."));
+        }
+        OutputFormat requested;
+        try {
+            requested = format == null ? null : OutputFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(text("Unknown output format."));
+        }
+        OutputFormat outputFormat;
+        try {
+            outputFormat = excelOutputService.resolveFormat(output, requested);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(text(e.getMessage()));
+        }
+
+        ExtractionBatch batch = extractionService.submitAll(files);
+        BatchRows rows = new BatchRows(batch);
+        BatchSummary summary = rows.summary;
+        if (!rows.hasNext()) {
+            logger.warn("No file in the batch could be extracted.");
+            Map<String, Object> report = summary.toReport("No files could be processed.");
+            return ResponseEntity.unprocessableEntity().contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, report));
+        }
+
+        rows.onEnd = () -> {
+            excelOutputService.append(output, outputFormat, summary.getHeaders(), summary.getRows());
+            logger.info("Batch streamed and saved to {}: {} ok, {} failed", output, summary.getSucceeded().size(),
+                    summary.getFailed().size());
+        };
+        Set<String> headers = new LinkedHashSet<>(summary.getHeaders());
+        headers.addAll(batch.columns());
+        StreamingResponseBody body = out -> {
+            try {
+                excelOutputService.write(outputFormat, out, headers, rows);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Streaming batch output failed: {}", e.getMessage(), e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + downloadName(output, outputFormat))
+                .contentType(MediaType.parseMediaType(outputFormat.contentType()))
+                .body(body);
+    }
+
     @GetMapping("/download")
-    public ResponseEntity<Resource> downloadFinalExcel() {
-        File file = new File(EXCEL_PATH);
+    public ResponseEntity<?> downloadFinalExcel(
+            @RequestParam(value = "output", defaultValue = ExcelOutputService.DEFAULT_OUTPUT) String output,
+            HttpServletRequest request, ServletWebRequest webRequest) {
+        return downloadOutput(output, request, webRequest);
+    }
+
+    @GetMapping("/outputs")
+    public ResponseEntity<?> listOutputs() {
+        try {
+            return ResponseEntity.ok(excelOutputService.listOutputs());
+        } catch (IOException e) {
+            logger.error("Failed to list outputs: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    @GetMapping("/outputs/{name}")
+    public ResponseEntity<?> downloadOutput(@PathVariable("name") String output,
+            HttpServletRequest request, ServletWebRequest webRequest) {
+        if (!ExcelOutputService.isValidName(output)) {
+            return ResponseEntity.badRequest().body("Invalid output name.");
+        }
+
+        DownloadSnapshot snapshot;
+        try {
+            snapshot = excelOutputService.snapshot(output);
+        } catch (IOException e) {
+            logger.error("Failed to prepare Excel file for download: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
 
-        if (!file.exists()) {
+        if (snapshot == null) {
             logger.warn("Download requested but Excel file not found.");
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
 
+        // Unchanged since the client's copy: 304 has already been set on the response
+        if (webRequest.checkNotModified(snapshot.etag(), snapshot.lastModified())) {
+            return null;
+        }
+
+        logger.info("Preparing to download file: {}", snapshot.file());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + downloadName(output, snapshot.format()))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(MediaType.parseMediaType(snapshot.format().contentType()))
+                .eTag(snapshot.etag())
+                .lastModified(snapshot.lastModified());
+
+        if (request.getHeader(HttpHeaders.RANGE) != null && rangeStillValid(request, snapshot)) {
+            // Spring turns a Resource body into a 206 partial response for the requested ranges
+            return response.body(new FileSystemResource(snapshot.file()));
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Zero-copy: Tomcat sends the file with sendfile once the handler returns
+            request.setAttribute(SENDFILE_FILENAME, snapshot.file().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, snapshot.length());
+            return response.contentLength(snapshot.length()).build();
+        }
+
+        StreamingResponseBody body = out -> Files.copy(snapshot.file(), out);
+        return response.contentLength(snapshot.length()).body(body);
+    }
+
+    private static StreamingResponseBody text(String message) {
+        return out -> out.write(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The default output keeps the file name clients already expect
+    private static String downloadName(String output, OutputFormat format) {
+        return ExcelOutputService.DEFAULT_OUTPUT.equals(output) ? "final_sheet.xlsx" : output + "." + format.extension();
+    }
+
+    // If-Range: a range request against an older copy gets the whole current file instead
+    private static boolean rangeStillValid(HttpServletRequest request, DownloadSnapshot snapshot) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(snapshot.etag());
+        }
         try {
-            logger.info("Preparing to download file: {}", EXCEL_PATH);
-            InputStreamResource resource = new InputStreamResource(new FileInputStream(file));
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=final_sheet.xlsx")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .contentLength(file.length())
-                    .body(resource);
-        } catch (IOException e) {
-            logger.error("Failed to read Excel file for download: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(null);
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == snapshot.lastModified() / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
         }
     }
 
-    private File convertToFile(MultipartFile file) throws IOException {
-        File convFile = new File(System.getProperty("java.io.tmpdir"), file.getOriginalFilename());
-        try (OutputStream os = new FileOutputStream(convFile)) {
-            os.write(file.getBytes());
+    // Successfully extracted rows of a batch in upload order, awaiting each file only when it is asked for
+    private static final class BatchRows implements Iterator<Map<String, String>> {
+
+        interface EndAction {
+            void run() throws IOException;
+        }
+
+        private final Iterator<ExtractionResult> results;
+        private final BatchSummary summary = new BatchSummary();
+        // Runs once, when the last file is done and before hasNext() first returns false
+        private EndAction onEnd;
+        private int returned;
+
+        BatchRows(Iterator<ExtractionResult> results) {
+            this.results = results;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (returned == summary.getRows().size() && results.hasNext()) {
+                summary.add(results.next());
+            }
+            if (returned < summary.getRows().size()) {
+                return true;
+            }
+            if (onEnd != null) {
+                EndAction action = onEnd;
+                onEnd = null;
+                try {
+                    action.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return summary.getRows().get(returned++);
         }
-        logger.debug("Converted MultipartFile to File: {}", convFile.getAbsolutePath());
-        return convFile;
     }
 }
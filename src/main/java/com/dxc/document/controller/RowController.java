@@ -0,0 +1,134 @@
+package com.dxc.document.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.dxc.document.service.ExcelOutputService;
+import com.dxc.document.service.OutputFormat;
+import com.dxc.document.service.RowStore;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Queries over the rows of an output held by the {@link RowStore}: {@code q} is full text over the
+ * indexed columns, each {@code filter=COLUMN:value} narrows further, {@code fields} picks the columns.
+ */
+@RestController
+public class RowController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowController.class);
+
+    private final RowStore rowStore;
+    private final ExcelOutputService excelOutputService;
+
+    public RowController(RowStore rowStore, ExcelOutputService excelOutputService) {
+        this.rowStore = rowStore;
+        this.excelOutputService = excelOutputService;
+    }
+
+    @GetMapping("/outputs/{name}/rows")
+    public ResponseEntity<?> rows(@PathVariable("name") String output,
+            @RequestParam(value = "q", required = false) String text,
+            @RequestParam(value = "fields", defaultValue = "") List<String> fields,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "" + RowStore.DEFAULT_PAGE_SIZE) int size,
+            HttpServletRequest request) {
+        if (!rowStore.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Row store is disabled.");
+        }
+        if (!ExcelOutputService.isValidName(output)) {
+            return ResponseEntity.badRequest().body("Invalid output name.");
+        }
+
+        RowStore.Page result;
+        try {
+            result = rowStore.query(output, RowStore.RowQuery.of(text, filters(request), fields, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("output", output);
+        body.put("total", result.total());
+        body.put("page", result.page());
+        body.put("size", result.size());
+        body.put("rows", result.rows());
+        return ResponseEntity.ok(body);
+    }
+
+    // All matching rows as a file, written while they are read from the store
+    @GetMapping("/outputs/{name}/rows/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable("name") String output,
+            @RequestParam(value = "q", required = false) String text,
+            @RequestParam(value = "fields", defaultValue = "") List<String> fields,
+            @RequestParam(value = "format", defaultValue = "xlsx") String format,
+            HttpServletRequest request) {
+        if (!rowStore.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.TEXT_PLAIN)
+                    .body(text("Row store is disabled."));
+        }
+        if (!ExcelOutputService.isValidName(output)) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(text("Invalid output name."));
+        }
+        OutputFormat outputFormat;
+        try {
+            outputFormat = OutputFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(text("Unknown output format."));
+        }
+
+        RowStore.Selection selection;
+        try {
+            selection = rowStore.select(output, RowStore.RowQuery.of(text, filters(request), fields, 0, 1));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(text(e.getMessage()));
+        }
+        if (selection == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        logger.info("Exporting {} rows of {} as {}", selection.size(), output, outputFormat.extension());
+        StreamingResponseBody body = out -> {
+            try {
+                excelOutputService.write(outputFormat, out, selection.headers(), selection.rows());
+            } catch (IOException | RuntimeException e) {
+                logger.error("Row export failed: {}", e.getMessage(), e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + output + "-rows." + outputFormat.extension())
+                .contentType(MediaType.parseMediaType(outputFormat.contentType()))
+                .body(body);
+    }
+
+    // Raw values: a List binding would split a single filter's value at its commas
+    private static List<String> filters(HttpServletRequest request) {
+        String[] filters = request.getParameterValues("filter");
+        return filters == null ? List.of() : Arrays.asList(filters);
+    }
+
+    private static StreamingResponseBody text(String message) {
+        return out -> out.write(message.getBytes(StandardCharsets.UTF_8));
+    }
+}
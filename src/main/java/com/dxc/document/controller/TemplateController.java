@@ -0,0 +1,45 @@
+package com.dxc.document.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dxc.document.service.ExtractionTemplateService;
+import com.dxc.document.utility.ExtractionTemplate;
+import com.dxc.document.utility.ExtractionTemplates;
+
+@RestController
+public class TemplateController {
+
+    private final ExtractionTemplateService templates;
+
+    public TemplateController(ExtractionTemplateService templates) {
+        this.templates = templates;
+    }
+
+    // Templates in effect, highest priority first
+    @GetMapping("/templates")
+    public Map<String, Object> templates() {
+        ExtractionTemplates current = templates.current();
+        List<Map<String, Object>> list = current.templates().stream().map(TemplateController::describe).toList();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("version", current.version());
+        body.put("templates", list);
+        return body;
+    }
+
+    private static Map<String, Object> describe(ExtractionTemplate template) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("name", template.name());
+        info.put("priority", template.priority());
+        info.put("fallback", template.isFallback());
+        info.put("fingerprint", template.fingerprint());
+        info.put("source", template.source());
+        info.put("version", template.version());
+        info.put("columns", template.columnNames());
+        return info;
+    }
+}
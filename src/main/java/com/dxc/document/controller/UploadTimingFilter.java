@@ -0,0 +1,46 @@
+package com.dxc.document.controller;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.dxc.document.utility.PipelineMetrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times how long receiving and parsing a multipart upload takes, before any handler sees it.
+ * The container caches the parsed parts, so Spring's own multipart resolution reuses them.
+ */
+@Component
+public class UploadTimingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return !"POST".equals(request.getMethod()) || contentType == null
+                || !contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            request.getParts();
+            PipelineMetrics.record(PipelineMetrics.UPLOAD_RECEIVE, start);
+            if (request.getContentLengthLong() > 0) {
+                PipelineMetrics.UPLOAD_BYTES.increment(request.getContentLengthLong());
+            }
+        } catch (IOException | ServletException | IllegalStateException e) {
+            // Oversized or malformed: Spring reports it when it resolves the parts itself
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,180 @@
+package com.dxc.document.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dxc.document.utility.HeaderLookup;
+import com.dxc.document.utility.PipelineMetrics;
+import com.dxc.document.utility.TextRowFormat;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Output in a line-oriented text format (CSV, NDJSON). The file is its own log: a batch is encoded
+ * into one buffer and appended with a single channel write and fsync, so an append costs O(batch)
+ * however large the file is, with no journal and no rebuild. A torn tail left by a crash is cut off
+ * when the output is opened. A CSV file keeps the columns of its header line for every later batch.
+ */
+class AppendOnlyOutput extends OutputSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppendOnlyOutput.class);
+
+    private final OutputFormat format;
+    private final TextRowFormat text;
+    // Reopened when an interrupt closed it during a failed append
+    private volatile FileChannel channel;
+    // Bytes of complete, acknowledged records; snapshots copy this much and a failed append is cut back to it
+    private volatile long length;
+    // A failed append could not be rolled back: the file may end in a fragment, so nothing more goes after it
+    private boolean failed;
+    private final Object appendLock = new Object();
+    private final Object snapshotLock = new Object();
+    private final Timer appendLockWait = PipelineMetrics.lockWait("append_only");
+    // Header columns of a CSV file; null until the first batch, and always for NDJSON
+    private List<String> columns;
+    private volatile DownloadSnapshot snapshot;
+
+    AppendOnlyOutput(String name, Path file, OutputFormat format) throws IOException {
+        super(name, file);
+        this.format = format;
+        this.text = format.textFormat();
+        this.channel = open(file);
+
+        long complete;
+        try (InputStream in = Files.newInputStream(file)) {
+            complete = text.completeLength(in);
+        }
+        if (complete < channel.size()) {
+            // A torn last record was never acknowledged to its caller: drop it
+            logger.warn("⚠️ Discarding {} bytes of incomplete output tail in {}", channel.size() - complete, file);
+            channel.truncate(complete);
+            channel.force(true);
+        }
+        if (complete > 0 && text.hasHeader()) {
+            try (InputStream in = Files.newInputStream(file)) {
+                columns = text.readHeader(in);
+            }
+        }
+        length = channel.size();
+        channel.position(length);
+        deleteSnapshots();
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    OutputFormat format() {
+        return format;
+    }
+
+    @Override
+    void append(Set<String> headers, List<Map<String, String>> rows) throws IOException {
+        long waitStart = System.nanoTime();
+        synchronized (appendLock) {
+            PipelineMetrics.record(appendLockWait, waitStart);
+            if (failed) {
+                throw new IOException("Output " + file() + " is unusable after a failed append");
+            }
+            long writeStart = System.nanoTime();
+            StringBuilder out = new StringBuilder(rows.size() * 1024);
+            if (length == 0 && text.hasHeader()) {
+                text.appendHeader(out, headers);
+                columns = new ArrayList<>(headers);
+            }
+            HeaderLookup order = new HeaderLookup(columns != null ? columns : headers);
+            if (columns != null && !columns.containsAll(headers)) {
+                // The header line cannot grow without rewriting the file; dropping the values would lose data
+                throw new OutputMismatchException("Output " + name() + " has fixed CSV columns; this batch adds "
+                        + headers.stream().filter(h -> !columns.contains(h)).toList());
+            }
+            for (Map<String, String> row : rows) {
+                text.appendRow(out, order, row);
+            }
+
+            ByteBuffer bytes = ByteBuffer.wrap(out.toString().getBytes(StandardCharsets.UTF_8));
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            } catch (IOException | RuntimeException e) {
+                rollBack(e);
+                throw e;
+            }
+            length += bytes.limit();
+            PipelineMetrics.record(PipelineMetrics.ROW_WRITE, writeStart);
+            logger.info("Data appended to {}: {} rows", file(), rows.size());
+        }
+    }
+
+    // Cuts a partly written batch off again, so the next one does not follow a torn record. An interrupt
+    // closes the channel, so it is reopened first with the interrupt held back
+    private void rollBack(Exception cause) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            if (!channel.isOpen()) {
+                channel = open(file());
+            }
+            channel.truncate(length);
+            channel.force(true);
+            channel.position(length);
+        } catch (IOException e) {
+            failed = true;
+            cause.addSuppressed(e);
+            logger.error("❌ Could not roll back a failed append to {}: {}", file(), e.getMessage());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Rows are only ever added after the snapshot's length, so the copy needs no lock against appends
+    @Override
+    DownloadSnapshot snapshot() throws IOException {
+        DownloadSnapshot current = snapshot;
+        long length = this.length;
+        if (current != null && current.seq() == length) {
+            return current;
+        }
+        synchronized (snapshotLock) {
+            current = snapshot;
+            length = this.length;
+            if (length == 0 || (current != null && current.seq() == length)) {
+                return current;
+            }
+            Path file = snapshotFile(length);
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long copied = 0;
+                while (copied < length) {
+                    copied += channel.transferTo(copied, length - copied, out);
+                }
+            }
+            snapshot = describeSnapshot(file, length);
+            if (current != null) {
+                retireSnapshot(current);
+            }
+            return snapshot;
+        }
+    }
+
+    @Override
+    void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,438 @@
+package com.dxc.document.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dxc.document.utility.ColumnWidthEstimator;
+import com.dxc.document.utility.ExtractionLimits;
+import com.dxc.document.utility.ExtractionReport;
+import com.dxc.document.utility.ExtractionTemplates;
+import com.dxc.document.utility.PdfExtractor;
+import com.dxc.document.utility.StreamingExcelWriter;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Headless batch conversion for local backfills: no Spring context, no HTTP, no multipart copies.
+ * One thread walks the inputs and submits each PDF to the extraction pool (at most a few per thread
+ * ahead of the writer), and the calling thread appends the results to the output in discovery order.
+ * Files whose rows are durable are recorded in a manifest, so an interrupted run resumes where it
+ * stopped; a file can be written twice only if the run dies between an append and its manifest entry.
+ *
+ * <pre>
+ * java -jar document_converter.jar batch [options] &lt;dir | file.pdf | @list.txt&gt;...
+ * </pre>
+ * Most of the startup left is class loading. For sub-second starts, run the jar extracted with
+ * {@code java -Djarmode=tools -jar document_converter.jar extract} and with a class data archive
+ * created once by {@code -XX:ArchiveClassesAtExit=batch.jsa} and used by {@code -XX:SharedArchiveFile=batch.jsa}.
+ */
+public final class BatchConverter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchConverter.class);
+
+    private static final String USAGE = """
+            Usage: batch [options] <dir | file.pdf | @list.txt>...
+              Directories are searched recursively for *.pdf; @list.txt names one path per line.
+              --out FILE         output file, .xlsx, .csv or .ndjson (default batch.xlsx)
+              --manifest FILE    processed-files manifest used to resume (default <out>.manifest)
+              --threads N        extraction threads (default: number of CPUs)
+              --batch-rows N     rows per durable append (default 500)
+              --templates DIR    extraction templates directory (default extraction-templates)
+              --verbose          log every file as the server does
+            """;
+
+    private static final int ROW_WINDOW = 100;
+    // A workbook's journal is applied to its part files every this many batches, so it never holds the whole run
+    private static final int MATERIALIZE_EVERY_BATCHES = 10;
+
+    // Discovery -> writer handoff ends with this; it is never submitted, only compared by identity
+    private static final Future<Converted> END = CompletableFuture.completedFuture(null);
+
+    private final Options options;
+    private final CompletableFuture<ExtractionTemplates> templates;
+    // The server's converter.extraction.* defaults
+    private final ExtractionLimits limits = new ExtractionLimits(16L * 1024 * 1024, 512L * 1024 * 1024, 500, 5_000_000);
+    private final Stats stats = new Stats();
+
+    private BatchConverter(Options options) {
+        this.options = options;
+        // Compiling the templates is most of the startup cost; it runs while the inputs are listed and the output opened
+        this.templates = CompletableFuture.supplyAsync(() -> {
+            try {
+                return new ExtractionTemplateService(options.templatesDir, 0).current();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, runnable -> new NamedThreadFactory("batch-templates").newThread(runnable).start());
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+        quietLogging(options.verbose);
+        try {
+            new BatchConverter(options).run();
+        } catch (Exception e) {
+            System.err.println("Batch failed: " + e.getMessage());
+            logger.debug("Batch failed", e);
+            System.exit(1);
+        }
+        // Pool threads are daemons, and the output is closed by now
+        System.exit(0);
+    }
+
+    private void run() throws IOException, InterruptedException {
+        OutputFormat format = OutputFormat.from(extension(options.out));
+        Manifest manifest = Manifest.open(options.manifest);
+        ExecutorService pool = Executors.newFixedThreadPool(options.threads, new NamedThreadFactory("pdf-extract"));
+        BlockingQueue<Future<Converted>> pending = new ArrayBlockingQueue<>(options.threads * 4);
+        Thread discovery = new Thread(() -> discover(manifest.done(), pool, pending), "batch-discovery");
+        discovery.setDaemon(true);
+
+        discovery.start();
+        OutputSink sink = open(format);
+        try {
+            templates(); // fails the run before the first file when a template does not compile
+            write(sink, manifest, pending);
+        } finally {
+            pool.shutdownNow();
+            // Closing a workbook applies its journal, which is part of the run's cost
+            sink.close();
+            manifest.close();
+        }
+        if (format == OutputFormat.XLSX) {
+            // The server merges a workbook's parts on download; here the merged file is the result
+            StreamingExcelWriter.materialize(options.out.toString(), ROW_WINDOW);
+        }
+        stats.print(System.out, options.out);
+        if (stats.discoveryError != null) {
+            throw new IOException("Input listing stopped early: " + stats.discoveryError);
+        }
+    }
+
+    private OutputSink open(OutputFormat format) throws IOException {
+        String name = options.out.getFileName().toString();
+        if (format == OutputFormat.XLSX) {
+            return new OutputWorkbook(name, options.out, new OutputWorkbook.Settings(true, ROW_WINDOW,
+                    ColumnWidthEstimator.Mode.ESTIMATE, 5000, 0));
+        }
+        return new AppendOnlyOutput(name, options.out, format);
+    }
+
+    // Walks the inputs in order; put() blocks once the writer is far enough behind
+    private void discover(Set<String> done, ExecutorService pool, BlockingQueue<Future<Converted>> pending) {
+        try {
+            PdfAction submit = pdf -> {
+                String key = pdf.toAbsolutePath().normalize().toString();
+                if (done.contains(key)) {
+                    stats.skipped++;
+                } else {
+                    pending.put(pool.submit(() -> convert(key)));
+                }
+            };
+            for (String input : options.inputs) {
+                if (input.startsWith("@")) {
+                    for (String line : Files.readAllLines(Path.of(input.substring(1)), StandardCharsets.UTF_8)) {
+                        if (!line.isBlank() && !line.startsWith("#")) {
+                            submit.accept(Path.of(line.trim()));
+                        }
+                    }
+                } else {
+                    forEachPdf(Path.of(input), submit);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            stats.discoveryError = e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                pending.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ExtractionTemplates templates() throws IOException {
+        try {
+            return templates.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof UncheckedIOException io ? io.getCause()
+                    : new IOException("Extraction templates failed to load: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private Converted convert(String path) {
+        File file = new File(path);
+        try {
+            ExtractionReport report = new ExtractionReport(file.getName());
+            Map<String, String> row = PdfExtractor.extractFieldsFromPdf(file, limits, templates(), report);
+            return new Converted(path, file.length(), row, null);
+        } catch (IOException | RuntimeException e) {
+            return new Converted(path, file.length(), null, String.valueOf(e.getMessage()));
+        }
+    }
+
+    // The single writer: results in discovery order, appended batch by batch, then marked done
+    private void write(OutputSink sink, Manifest manifest, BlockingQueue<Future<Converted>> pending)
+            throws IOException, InterruptedException {
+        List<Map<String, String>> rows = new ArrayList<>(options.batchRows);
+        List<String> paths = new ArrayList<>(options.batchRows);
+        for (Future<Converted> next = pending.take(); next != END; next = pending.take()) {
+            Converted converted;
+            try {
+                converted = next.get();
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+            stats.bytes += converted.bytes();
+            if (converted.row() == null) {
+                stats.failed++;
+                System.err.println("Failed: " + converted.path() + ": " + converted.error());
+                continue;
+            }
+            rows.add(converted.row());
+            paths.add(converted.path());
+            if (rows.size() >= options.batchRows) {
+                flush(sink, manifest, rows, paths);
+            }
+        }
+        flush(sink, manifest, rows, paths);
+    }
+
+    private void flush(OutputSink sink, Manifest manifest, List<Map<String, String>> rows, List<String> paths)
+            throws IOException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> headers = new LinkedHashSet<>();
+        rows.forEach(row -> headers.addAll(row.keySet()));
+        sink.append(headers, List.copyOf(rows));
+        manifest.add(paths);
+        stats.converted += rows.size();
+        rows.clear();
+        paths.clear();
+        if (++stats.batches % MATERIALIZE_EVERY_BATCHES == 0) {
+            sink.materializeQuietly();
+        }
+        if (stats.converted % (options.batchRows * 10L) < options.batchRows) {
+            System.err.printf(Locale.ROOT, "... %d files converted%n", stats.converted);
+        }
+    }
+
+    private interface PdfAction {
+        void accept(Path pdf) throws IOException, InterruptedException;
+    }
+
+    // Depth first, each directory sorted by name, so reruns over the same tree write rows in the same
+    // order; only one directory listing is held at a time, and the first files go out while the rest is walked
+    private static void forEachPdf(Path path, PdfAction action) throws IOException, InterruptedException {
+        if (!Files.isDirectory(path)) {
+            action.accept(path);
+            return;
+        }
+        List<Path> entries;
+        try (Stream<Path> list = Files.list(path)) {
+            entries = list.sorted().toList();
+        }
+        for (Path entry : entries) {
+            if (Files.isDirectory(entry)) {
+                forEachPdf(entry, action);
+            } else if (entry.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                action.accept(entry);
+            }
+        }
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            throw new IllegalArgumentException("Output file needs an .xlsx, .csv or .ndjson extension: " + file);
+        }
+        return name.substring(dot + 1);
+    }
+
+    // Without Spring, Logback would log everything at DEBUG. Quiet: warnings only, minus PDFBox's font
+    // fallbacks and the extractor's stack traces, since every failed file is reported on stderr anyway
+    private static void quietLogging(boolean verbose) {
+        level(Logger.ROOT_LOGGER_NAME, verbose ? Level.INFO : Level.WARN);
+        if (!verbose) {
+            level("org.apache.pdfbox", Level.ERROR);
+            level(PdfExtractor.class.getName(), Level.OFF);
+        }
+    }
+
+    private static void level(String logger, Level level) {
+        if (LoggerFactory.getLogger(logger) instanceof ch.qos.logback.classic.Logger logback) {
+            logback.setLevel(level);
+        }
+    }
+
+    private record Converted(String path, long bytes, Map<String, String> row, String error) {
+    }
+
+    /** Absolute paths of the files whose rows are durable in the output, one per line, fsync'd per batch. */
+    private static final class Manifest {
+
+        private final FileChannel channel;
+        private final Set<String> done;
+
+        private Manifest(FileChannel channel, Set<String> done) {
+            this.channel = channel;
+            this.done = done;
+        }
+
+        static Manifest open(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            Set<String> done = new HashSet<>();
+            String text = Files.readString(file, StandardCharsets.UTF_8);
+            int complete = text.lastIndexOf('\n') + 1;
+            if (complete < text.length()) {
+                // A line cut off by a crash: its batch was durable, but the file is simply converted again
+                channel.truncate(text.substring(0, complete).getBytes(StandardCharsets.UTF_8).length);
+            }
+            for (String line : text.substring(0, complete).split("\n")) {
+                if (!line.isEmpty()) {
+                    done.add(line);
+                }
+            }
+            channel.position(channel.size());
+            return new Manifest(channel, done);
+        }
+
+        Set<String> done() {
+            return done;
+        }
+
+        void add(List<String> paths) throws IOException {
+            StringBuilder lines = new StringBuilder();
+            paths.forEach(path -> lines.append(path).append('\n'));
+            ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // Written by the discovery thread (skipped, discoveryError) before END, read by the writer after it
+    private static final class Stats {
+
+        private final long start = System.nanoTime();
+        volatile int skipped;
+        volatile String discoveryError;
+        int converted;
+        int batches;
+        int failed;
+        long bytes;
+
+        void print(PrintStream out, Path output) {
+            double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-9);
+            double megabytes = bytes / (1024.0 * 1024.0);
+            out.printf(Locale.ROOT, "Converted %d files into %s, %d failed, %d skipped (already in the manifest)%n",
+                    converted, output, failed, skipped);
+            out.printf(Locale.ROOT, "%.1f s, %.1f files/s, %.1f MB read at %.1f MB/s%n", seconds,
+                    (converted + failed) / seconds, megabytes, megabytes / seconds);
+        }
+    }
+
+    private static final class Options {
+
+        final List<String> inputs = new ArrayList<>();
+        Path out = Path.of("batch.xlsx");
+        Path manifest;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batchRows = 500;
+        String templatesDir = "extraction-templates";
+        boolean verbose;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--out" -> options.out = Path.of(value(args, ++i, arg));
+                    case "--manifest" -> options.manifest = Path.of(value(args, ++i, arg));
+                    case "--threads" -> options.threads = positive(value(args, ++i, arg), arg);
+                    case "--batch-rows" -> options.batchRows = positive(value(args, ++i, arg), arg);
+                    case "--templates" -> options.templatesDir = value(args, ++i, arg);
+                    case "--verbose" -> options.verbose = true;
+                    default -> {
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option " + arg);
+                        }
+                        options.inputs.add(arg);
+                    }
+                }
+            }
+            if (options.inputs.isEmpty()) {
+                throw new IllegalArgumentException("No input given");
+            }
+            OutputFormat.from(extension(options.out));
+            if (options.manifest == null) {
+                options.manifest = Path.of(options.out + ".manifest");
+            }
+            return options;
+        }
+
+        private static String value(String[] args, int i, String option) {
+            if (i >= args.length) {
+                throw new IllegalArgumentException(option + " needs a value");
+            }
+            return args[i];
+        }
+
+        private static int positive(String value, String option) {
+            try {
+                int n = Integer.parseInt(value);
+                if (n > 0) {
+                    return n;
+                }
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+            throw new IllegalArgumentException(option + " must be a positive number");
+        }
+    }
+}
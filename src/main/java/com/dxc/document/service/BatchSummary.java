@@ -0,0 +1,82 @@
+package com.dxc.document.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.dxc.document.utility.CompactRow;
+
+/**
+ * Splits the extraction results of one batch into the rows to write (upload order kept)
+ * and the per-file success/failure report returned to the client.
+ */
+public class BatchSummary {
+
+    private Set<String> headers;
+    private final List<Map<String, String>> rows = new ArrayList<>();
+    private final List<String> succeeded = new ArrayList<>();
+    private final List<Map<String, String>> failed = new ArrayList<>();
+    private final List<Map<String, Object>> diagnostics = new ArrayList<>();
+
+    public static BatchSummary of(List<ExtractionResult> results) {
+        BatchSummary summary = new BatchSummary();
+        for (ExtractionResult result : results) {
+            summary.add(result);
+        }
+        return summary;
+    }
+
+    public void add(ExtractionResult result) {
+        if (result.succeeded()) {
+            rows.add(result.data());
+            succeeded.add(result.fileName());
+            // Union over the batch: files matched by different templates bring different columns
+            Set<String> columns = CompactRow.headersOf(result.data());
+            if (headers == null) {
+                headers = columns;
+            } else if (!headers.containsAll(columns)) {
+                Set<String> union = new LinkedHashSet<>(headers);
+                union.addAll(columns);
+                headers = union;
+            }
+            if (result.report() != null) {
+                diagnostics.add(result.report().toMap());
+            }
+        } else {
+            failed.add(Map.of("file", String.valueOf(result.fileName()), "error", result.error()));
+        }
+    }
+
+    public Set<String> getHeaders() {
+        return headers;
+    }
+
+    public List<Map<String, String>> getRows() {
+        return rows;
+    }
+
+    public List<String> getSucceeded() {
+        return succeeded;
+    }
+
+    public List<Map<String, String>> getFailed() {
+        return failed;
+    }
+
+    public boolean hasRows() {
+        return !rows.isEmpty();
+    }
+
+    public Map<String, Object> toReport(String message) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("message", message);
+        report.put("succeeded", succeeded);
+        report.put("failed", failed);
+        // What extraction skipped or could not find, per freshly extracted file
+        report.put("diagnostics", diagnostics);
+        return report;
+    }
+}
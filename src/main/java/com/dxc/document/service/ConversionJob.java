@@ -0,0 +1,152 @@
+package com.dxc.document.service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * State of one asynchronously processed batch. Mutated by the job worker, read by status polls.
+ */
+public class ConversionJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Path workDir;
+    private final List<String> fileNames;
+    private final long[] fileSizes;
+    private final long totalBytes;
+    private final String output;
+    private final OutputFormat format;
+    private final String[] fileStates;
+    private final String[] fileErrors;
+    private final long submittedAt = System.currentTimeMillis();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile int processed;
+    private volatile int failed;
+    private volatile long processedBytes;
+    private volatile String error;
+    private volatile Path result;
+
+    ConversionJob(Path workDir, List<String> fileNames, long[] fileSizes, String output, OutputFormat format) {
+        this.workDir = workDir;
+        this.fileNames = List.copyOf(fileNames);
+        this.fileSizes = fileSizes;
+        this.totalBytes = Arrays.stream(fileSizes).sum();
+        this.output = output;
+        this.format = format;
+        this.fileStates = new String[fileNames.size()];
+        this.fileErrors = new String[fileNames.size()];
+        Arrays.fill(fileStates, "PENDING");
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Path getResult() {
+        return result;
+    }
+
+    String getOutput() {
+        return output;
+    }
+
+    public OutputFormat getFormat() {
+        return format;
+    }
+
+    Path getWorkDir() {
+        return workDir;
+    }
+
+    List<String> getFileNames() {
+        return fileNames;
+    }
+
+    long getFinishedAt() {
+        return finishedAt;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void markRunning() {
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+    }
+
+    // Called in upload order by the worker as each file's extraction finishes
+    synchronized void fileDone(ExtractionResult result) {
+        int index = processed;
+        fileStates[index] = result.succeeded() ? "DONE" : "FAILED";
+        fileErrors[index] = result.error();
+        if (!result.succeeded()) {
+            failed++;
+        }
+        processedBytes += fileSizes[index];
+        processed = index + 1;
+    }
+
+    void complete(Path result) {
+        this.result = result;
+        finish(Status.COMPLETED, null);
+    }
+
+    void fail(String error) {
+        finish(Status.FAILED, error);
+    }
+
+    private void finish(Status status, String error) {
+        this.error = error;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = status;
+    }
+
+    public synchronized Map<String, Object> toStatus() {
+        long end = finishedAt != 0 ? finishedAt : System.currentTimeMillis();
+        double seconds = startedAt == 0 ? 0 : Math.max(end - startedAt, 1) / 1000.0;
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", id);
+        status.put("status", this.status);
+        status.put("output", output);
+        status.put("format", format.extension());
+        status.put("total", fileNames.size());
+        status.put("processed", processed);
+        status.put("failed", failed);
+        status.put("totalBytes", totalBytes);
+        status.put("queuedSeconds", ((startedAt != 0 ? startedAt : end) - submittedAt) / 1000.0);
+        status.put("elapsedSeconds", seconds);
+        status.put("filesPerSecond", seconds == 0 ? 0 : processed / seconds);
+        status.put("bytesPerSecond", seconds == 0 ? 0 : processedBytes / seconds);
+        if (error != null) {
+            status.put("error", error);
+        }
+
+        List<Map<String, String>> files = new ArrayList<>(fileNames.size());
+        for (int i = 0; i < fileNames.size(); i++) {
+            Map<String, String> file = new LinkedHashMap<>();
+            file.put("file", fileNames.get(i));
+            file.put("state", fileStates[i]);
+            if (fileErrors[i] != null) {
+                file.put("error", fileErrors[i]);
+            }
+            files.add(file);
+        }
+        status.put("files", files);
+        return status;
+    }
+}
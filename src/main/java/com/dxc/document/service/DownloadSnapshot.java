@@ -0,0 +1,12 @@
+package com.dxc.document.service;
+
+import java.nio.file.Path;
+
+/**
+ * Immutable copy of an output as of one sequence number: a hard link where possible for workbooks,
+ * which writers only ever replace by renaming a new file over them, and a copy of the written prefix
+ * for append-only files (seq is then their length).
+ */
+public record DownloadSnapshot(Path file, long seq, String etag, long lastModified, long length,
+                               OutputFormat format) {
+}
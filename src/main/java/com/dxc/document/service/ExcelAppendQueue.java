@@ -0,0 +1,179 @@
+package com.dxc.document.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dxc.document.utility.PipelineMetrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Single writer for one output file. Appends from any number of threads are queued; the writer
+ * thread takes everything that arrived while it was busy (up to a row limit, waiting at most the
+ * linger time for more) and writes it with one workbook flush. Each caller's future completes
+ * once that flush has finished.
+ */
+class ExcelAppendQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcelAppendQueue.class);
+
+    @FunctionalInterface
+    interface BatchWriter {
+        void write(Set<String> headers, List<Map<String, String>> rows) throws IOException;
+    }
+
+    private record PendingAppend(Set<String> headers, List<Map<String, String>> rows, CompletableFuture<Void> done,
+                                 long submittedAt) {
+    }
+
+    // Queued by close() behind every accepted append; the writer stops once it gets there. Not an
+    // interrupt: that would close the journal's channel under a write in progress
+    private static final PendingAppend SHUTDOWN = new PendingAppend(Set.of(), List.of(), null, 0);
+
+    private final BatchWriter writer;
+    private final int maxBatchRows;
+    private final long lingerNanos;
+    private final LinkedBlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private final Gauge depth;
+    private final Timer queueWait;
+    // Taken from the queue but left for the next cycle because the batch was full
+    private PendingAppend carried;
+    private volatile boolean closed;
+
+    ExcelAppendQueue(String name, BatchWriter writer, int maxBatchRows, long lingerMillis) {
+        this.writer = writer;
+        this.maxBatchRows = maxBatchRows;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.depth = PipelineMetrics.queueDepth(name, queue);
+        // Successor of the old global Excel write lock: how long an append waits for its flush to start
+        this.queueWait = PipelineMetrics.lockWait(name);
+        this.thread = new NamedThreadFactory(name).newThread(this::run);
+        this.thread.start();
+    }
+
+    CompletableFuture<Void> submit(Set<String> headers, List<Map<String, String>> rows) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (closed) {
+            done.completeExceptionally(new IOException("Excel writer is shut down"));
+            return done;
+        }
+        queue.add(new PendingAppend(headers, rows, done, System.nanoTime()));
+        return done;
+    }
+
+    void close() {
+        closed = true;
+        queue.add(SHUTDOWN);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warn("⚠️ Excel writer {} still busy after 30 s", thread.getName());
+        }
+        PendingAppend pending;
+        while ((pending = queue.poll()) != null) {
+            if (pending != SHUTDOWN) {
+                pending.done().completeExceptionally(new IOException("Excel writer is shut down"));
+            }
+        }
+        PipelineMetrics.REGISTRY.remove(depth);
+    }
+
+    private void run() {
+        boolean running = true;
+        while (running) {
+            List<PendingAppend> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (batch.get(batch.size() - 1) == SHUTDOWN) {
+                batch = batch.subList(0, batch.size() - 1);
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+        if (carried != null) {
+            carried.done().completeExceptionally(new IOException("Excel writer is shut down"));
+        }
+    }
+
+    private List<PendingAppend> nextBatch() throws InterruptedException {
+        List<PendingAppend> batch = new ArrayList<>();
+        PendingAppend first = carried != null ? carried : queue.take();
+        carried = null;
+        batch.add(first);
+        if (first == SHUTDOWN) {
+            return batch;
+        }
+        int rows = first.rows().size();
+
+        long deadline = System.nanoTime() + lingerNanos;
+        while (rows < maxBatchRows) {
+            long wait = deadline - System.nanoTime();
+            PendingAppend next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            if (next == SHUTDOWN) {
+                batch.add(next);
+                break;
+            }
+            if (rows + next.rows().size() > maxBatchRows) {
+                carried = next;
+                break;
+            }
+            batch.add(next);
+            rows += next.rows().size();
+        }
+        return batch;
+    }
+
+    // Consecutive appends with the same columns become one write; callers are completed per write
+    private void flush(List<PendingAppend> batch) {
+        long start = System.nanoTime();
+        for (PendingAppend pending : batch) {
+            queueWait.record(start - pending.submittedAt(), TimeUnit.NANOSECONDS);
+        }
+        int from = 0;
+        while (from < batch.size()) {
+            Set<String> headers = batch.get(from).headers();
+            int to = from + 1;
+            while (to < batch.size() && batch.get(to).headers().equals(headers)) {
+                to++;
+            }
+            List<PendingAppend> group = batch.subList(from, to);
+            List<Map<String, String>> rows = new ArrayList<>();
+            for (PendingAppend pending : group) {
+                rows.addAll(pending.rows());
+            }
+
+            try {
+                writer.write(headers, rows);
+                group.forEach(pending -> pending.done().complete(null));
+            } catch (Exception e) {
+                logger.error("❌ Excel append of {} rows failed: {}", rows.size(), e.getMessage(), e);
+                group.forEach(pending -> pending.done().completeExceptionally(e));
+            }
+            from = to;
+        }
+        logger.info("🧾 Flushed {} append(s) in {} ms", batch.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,406 @@
+package com.dxc.document.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dxc.document.utility.ColumnWidthEstimator;
+import com.dxc.document.utility.StreamingExcelWriter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Registry of named outputs. The default output is the original sheet.xlsx; any other name lives in
+ * the outputs directory as an XLSX, CSV or NDJSON file (see {@link OutputFormat}) with its own writer
+ * and locks. The format is chosen when an output is first written and kept by its file. Outputs are
+ * opened on first use, closed again when idle, and their files deleted once they exceed the retention period.
+ */
+@Service
+public class ExcelOutputService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcelOutputService.class);
+
+    public static final String DEFAULT_OUTPUT = "sheet";
+    private static final Pattern OUTPUT_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final OutputWorkbook.Settings settings;
+    private final OutputFormat defaultFormat;
+    private final Path outputsDir;
+    private final Path defaultPath;
+    private final long idleMillis;
+    private final long retentionMillis;
+    private final ConcurrentHashMap<String, OutputSink> open = new ConcurrentHashMap<>();
+    // Held while an output is opened, closed or deleted, so that file I/O runs outside the map's locks
+    private final ConcurrentHashMap<String, Object> outputLocks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService maintenance;
+    private final List<AppendListener> listeners = new CopyOnWriteArrayList<>();
+
+    /** Told about every batch once it is durable in its output, and about outputs the retention sweep deletes. */
+    public interface AppendListener {
+        void appended(String output, Set<String> headers, List<Map<String, String>> rows);
+
+        default void deleted(String output) {
+        }
+    }
+
+    public ExcelOutputService(@Value("${converter.excel.mode:xssf}") String excelMode,
+                              @Value("${converter.excel.row-window:100}") int rowWindow,
+                              @Value("${converter.excel.column-width:estimate}") String widthMode,
+                              @Value("${converter.excel.max-batch-rows:5000}") int maxBatchRows,
+                              @Value("${converter.excel.linger-ms:20}") long lingerMillis,
+                              @Value("${converter.excel.materialize-interval-seconds:30}") long materializeSeconds,
+                              @Value("${converter.outputs.dir:outputs}") String outputsDir,
+                              @Value("${converter.outputs.default-file:sheet.xlsx}") String defaultFile,
+                              @Value("${converter.outputs.format:xlsx}") String defaultFormat,
+                              @Value("${converter.outputs.idle-minutes:15}") long idleMinutes,
+                              @Value("${converter.outputs.retention-days:30}") long retentionDays)
+            throws IOException {
+        this.settings = new OutputWorkbook.Settings("streaming".equalsIgnoreCase(excelMode), rowWindow,
+                ColumnWidthEstimator.Mode.from(widthMode), maxBatchRows, lingerMillis);
+        this.defaultFormat = OutputFormat.from(defaultFormat);
+        this.outputsDir = Files.createDirectories(Path.of(outputsDir));
+        this.defaultPath = Path.of(defaultFile);
+        this.idleMillis = TimeUnit.MINUTES.toMillis(idleMinutes);
+        this.retentionMillis = TimeUnit.DAYS.toMillis(retentionDays);
+
+        // Opening an output replays whatever its journal still holds; the default output stays open
+        open.put(DEFAULT_OUTPUT, new OutputWorkbook(DEFAULT_OUTPUT, defaultPath, settings));
+        replayNamedOutputs();
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("excel-maintenance"));
+        if (materializeSeconds > 0) {
+            maintenance.scheduleWithFixedDelay(() -> open.values().forEach(OutputSink::materializeQuietly),
+                    materializeSeconds, materializeSeconds, TimeUnit.SECONDS);
+        }
+        maintenance.scheduleWithFixedDelay(this::evictAndExpire, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public static boolean isValidName(String output) {
+        return output != null && OUTPUT_NAME.matcher(output).matches();
+    }
+
+    public void append(Set<String> headers, List<Map<String, String>> rows) throws IOException {
+        append(DEFAULT_OUTPUT, null, headers, rows);
+    }
+
+    /**
+     * Blocks until the rows are durable in the output. {@code format} (null = the output's own, or the
+     * configured default for a new output) must match the format of an existing output.
+     *
+     * @throws OutputMismatchException when the output exists in another format, or is a CSV file whose
+     *         header lacks some of {@code headers}
+     */
+    public void append(String output, OutputFormat format, Set<String> headers, List<Map<String, String>> rows)
+            throws IOException {
+        OutputSink sink = acquire(output, format, true);
+        try {
+            sink.append(headers, rows);
+        } finally {
+            release(sink);
+        }
+        for (AppendListener listener : listeners) {
+            try {
+                listener.appended(output, headers, rows);
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Append listener failed for output {}: {}", output, e.getMessage());
+            }
+        }
+    }
+
+    public void addAppendListener(AppendListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Format {@code output} is (or, when new, will be) written in. A new output is not created here:
+     * the first append does that, so a batch that produces no rows leaves nothing behind.
+     *
+     * @throws OutputMismatchException when {@code format} differs from the format of an existing output
+     */
+    public OutputFormat resolveFormat(String output, OutputFormat format) {
+        if (!isValidName(output)) {
+            throw new IllegalArgumentException("Invalid output name: " + output);
+        }
+        OutputSink sink = open.get(output);
+        OutputFormat actual = sink != null ? sink.format() : storedFormat(output);
+        checkFormat(output, actual, format);
+        return actual != null ? actual : format != null ? format : defaultFormat;
+    }
+
+    /**
+     * Snapshot to serve for a download of {@code output}, or {@code null} when nothing was written
+     * to it yet. Unknown names are not created.
+     */
+    public DownloadSnapshot snapshot(String output) throws IOException {
+        OutputSink sink = acquire(output, null, false);
+        if (sink == null) {
+            return null;
+        }
+        try {
+            return sink.snapshot();
+        } finally {
+            release(sink);
+        }
+    }
+
+    public List<Map<String, Object>> listOutputs() throws IOException {
+        Map<String, OutputFormat> formats = new TreeMap<>();
+        open.forEach((name, sink) -> formats.put(name, sink.format()));
+        for (OutputFormat format : OutputFormat.values()) {
+            forEachOutputFile(format, (name, file) -> formats.putIfAbsent(name, format));
+        }
+
+        List<Map<String, Object>> outputs = new ArrayList<>();
+        for (Map.Entry<String, OutputFormat> output : formats.entrySet()) {
+            String name = output.getKey();
+            Path file = pathFor(name, output.getValue());
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("name", name);
+            info.put("format", output.getValue().extension());
+            info.put("open", open.containsKey(name));
+            info.put("exists", Files.exists(file));
+            if (Files.exists(file)) {
+                info.put("sizeBytes", Files.size(file));
+                info.put("lastModified", Files.getLastModifiedTime(file).toInstant().toString());
+            }
+            info.put("downloadUrl", "/outputs/" + name);
+            outputs.add(info);
+        }
+        return outputs;
+    }
+
+    // Standalone file with just these rows, e.g. the result of a single job
+    public void write(OutputFormat format, OutputStream os, Set<String> headers, List<Map<String, String>> rows)
+            throws IOException {
+        if (format == OutputFormat.XLSX) {
+            StreamingExcelWriter.write(os, headers, rows, settings.rowWindow(), settings.widthMode());
+        } else {
+            format.textFormat().write(os, headers, rows.iterator());
+        }
+    }
+
+    // Same, with each row written to os as soon as the iterator yields it
+    public void write(OutputFormat format, OutputStream os, Set<String> headers, Iterator<Map<String, String>> rows)
+            throws IOException {
+        if (format == OutputFormat.XLSX) {
+            StreamingExcelWriter.write(os, headers, rows, settings.rowWindow());
+        } else {
+            format.textFormat().write(os, headers, rows);
+        }
+    }
+
+    private OutputSink acquire(String output, OutputFormat format, boolean create) throws IOException {
+        if (!isValidName(output)) {
+            throw new IllegalArgumentException("Invalid output name: " + output);
+        }
+        if (!create && !DEFAULT_OUTPUT.equals(output) && !open.containsKey(output) && storedFormat(output) == null) {
+            return null;
+        }
+        OutputSink sink = use(output, format);
+        if (sink != null) {
+            return sink;
+        }
+        synchronized (lockFor(output)) {
+            sink = use(output, format);
+            if (sink != null) {
+                return sink;
+            }
+            OutputFormat stored = storedFormat(output);
+            checkFormat(output, stored, format);
+            sink = open(output, stored != null ? stored : format != null ? format : defaultFormat);
+            logger.info("📂 Opened output {} ({})", output, sink.format().extension());
+            sink.users++;
+            sink.touch();
+            open.put(output, sink);
+            return sink;
+        }
+    }
+
+    // Counts one more user of an open output, or returns null when it is not open
+    private OutputSink use(String output, OutputFormat format) {
+        return open.computeIfPresent(output, (name, sink) -> {
+            checkFormat(name, sink.format(), format);
+            sink.users++;
+            sink.touch();
+            return sink;
+        });
+    }
+
+    private Object lockFor(String output) {
+        return outputLocks.computeIfAbsent(output, name -> new Object());
+    }
+
+    private OutputSink open(String output, OutputFormat format) throws IOException {
+        Path file = pathFor(output, format);
+        return format == OutputFormat.XLSX ? new OutputWorkbook(output, file, settings)
+                : new AppendOnlyOutput(output, file, format);
+    }
+
+    private static void checkFormat(String output, OutputFormat actual, OutputFormat requested) {
+        if (actual != null && requested != null && actual != requested) {
+            throw new OutputMismatchException("Output " + output + " is stored as " + actual.extension());
+        }
+    }
+
+    private void release(OutputSink sink) {
+        open.computeIfPresent(sink.name(), (name, current) -> {
+            current.users--;
+            current.touch();
+            return current;
+        });
+    }
+
+    private void evictAndExpire() {
+        long now = System.currentTimeMillis();
+        open.values().forEach(OutputSink::deleteRetiredSnapshots);
+        for (String output : List.copyOf(open.keySet())) {
+            if (DEFAULT_OUTPUT.equals(output)) {
+                continue;
+            }
+            // Closed under the output's lock so it cannot be reopened while its final flush runs
+            synchronized (lockFor(output)) {
+                OutputSink sink = open.get(output);
+                if (sink == null
+                        || open.computeIfPresent(output, (name, current) -> isIdle(current, now) ? null : current) != null) {
+                    continue;
+                }
+                try {
+                    sink.close();
+                    logger.info("💤 Closed idle output {}", output);
+                } catch (IOException e) {
+                    logger.warn("⚠️ Closing idle output {} failed: {}", output, e.getMessage());
+                }
+            }
+        }
+
+        if (retentionMillis <= 0) {
+            return;
+        }
+        try {
+            for (OutputFormat format : OutputFormat.values()) {
+                forEachOutputFile(format, (name, file) -> {
+                    if (!deleteIfExpired(name, format, file, now)) {
+                        return;
+                    }
+                    listeners.forEach(listener -> listener.deleted(name));
+                    logger.info("🗑️ Deleted output {} after {} days without changes", name,
+                            TimeUnit.MILLISECONDS.toDays(retentionMillis));
+                });
+            }
+        } catch (IOException e) {
+            logger.warn("⚠️ Output retention sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean isIdle(OutputSink sink, long now) {
+        return sink.users == 0 && now - sink.lastUsed() >= idleMillis;
+    }
+
+    // Checked and deleted under the output's lock, so acquire() cannot reopen the output in between
+    private boolean deleteIfExpired(String output, OutputFormat format, Path file, long now) throws IOException {
+        synchronized (lockFor(output)) {
+            if (open.containsKey(output) || now - Files.getLastModifiedTime(file).toMillis() < retentionMillis) {
+                return false;
+            }
+            deleteFiles(output, format);
+            return true;
+        }
+    }
+
+    private void replayNamedOutputs() throws IOException {
+        try (DirectoryStream<Path> journals = Files.newDirectoryStream(outputsDir, "*.xlsx.journal")) {
+            for (Path journal : journals) {
+                if (Files.size(journal) == 0) {
+                    continue;
+                }
+                String fileName = journal.getFileName().toString();
+                String name = fileName.substring(0, fileName.length() - ".xlsx.journal".length());
+                if (isValidName(name)) {
+                    new OutputWorkbook(name, pathFor(name, OutputFormat.XLSX), settings).close();
+                }
+            }
+        }
+    }
+
+    private Path pathFor(String output, OutputFormat format) {
+        return DEFAULT_OUTPUT.equals(output) ? defaultPath : outputsDir.resolve(output + "." + format.extension());
+    }
+
+    // Format of the files an output already has, or null for a new output; the default output is always XLSX
+    private OutputFormat storedFormat(String output) {
+        if (DEFAULT_OUTPUT.equals(output)) {
+            return OutputFormat.XLSX;
+        }
+        for (OutputFormat format : OutputFormat.values()) {
+            Path file = pathFor(output, format);
+            if (Files.exists(file) || Files.exists(Path.of(file + ".journal"))) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private interface OutputFileAction {
+        void accept(String name, Path file) throws IOException;
+    }
+
+    private void forEachOutputFile(OutputFormat format, OutputFileAction action) throws IOException {
+        String suffix = "." + format.extension();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(outputsDir, "*" + suffix)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                action.accept(fileName.substring(0, fileName.length() - suffix.length()), file);
+            }
+        }
+    }
+
+    // The output file and everything the writers keep next to it
+    private void deleteFiles(String output, OutputFormat format) throws IOException {
+        String prefix = pathFor(output, format).getFileName().toString();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(outputsDir, prefix + "*")) {
+            for (Path file : files) {
+                if (Files.isDirectory(file)) {
+                    try (DirectoryStream<Path> parts = Files.newDirectoryStream(file)) {
+                        for (Path part : parts) {
+                            Files.deleteIfExists(part);
+                        }
+                    }
+                }
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+        for (OutputSink sink : open.values()) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                logger.warn("⚠️ Closing output {} failed: {}", sink.name(), e.getMessage());
+            }
+        }
+        open.clear();
+    }
+}
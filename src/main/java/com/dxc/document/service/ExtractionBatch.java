@@ -0,0 +1,35 @@
+package com.dxc.document.service;
+
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Results of one batch in upload order, see {@link ExtractionService#submitAll}. All files are
+ * extracted with the same template set, so {@link #columns()} covers every row the batch can yield.
+ */
+public final class ExtractionBatch implements Iterator<ExtractionResult> {
+
+    private final Iterator<ExtractionResult> results;
+    private final Set<String> columns;
+
+    ExtractionBatch(Iterator<ExtractionResult> results, Set<String> columns) {
+        this.results = results;
+        this.columns = columns;
+    }
+
+    // Union of the columns of the batch's templates, whichever of them the files end up matching
+    public Set<String> columns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return results.hasNext();
+    }
+
+    // Blocks until the next file in upload order is done
+    @Override
+    public ExtractionResult next() {
+        return results.next();
+    }
+}
@@ -0,0 +1,200 @@
+package com.dxc.document.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dxc.document.utility.CompactRow;
+import com.dxc.document.utility.PdfExtractor;
+import com.dxc.document.utility.RowSchema;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Extracted rows keyed by the SHA-256 of the PDF bytes, so a re-uploaded document is not parsed again.
+ * Entries live in a weight-bounded LRU map and, when a directory is configured, in one JSON file per
+ * document that survives restarts. Keys carry the version of the extraction templates in effect, so
+ * changing a template (or {@link PdfExtractor#RULES_VERSION}) invalidates everything cached before.
+ */
+@Service
+public class ExtractionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionCache.class);
+    private static final TypeReference<LinkedHashMap<String, String>> ROW_TYPE = new TypeReference<>() {
+    };
+
+    private final boolean enabled;
+    private final long maxWeight;
+    private final Path diskDir;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Map<String, String>> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long weight;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ExtractionCache(@Value("${converter.cache.enabled:true}") boolean enabled,
+                           @Value("${converter.cache.max-memory-mb:64}") long maxMemoryMb,
+                           @Value("${converter.cache.dir:}") String dir) throws IOException {
+        this.enabled = enabled;
+        this.maxWeight = maxMemoryMb * 1024 * 1024;
+        if (enabled && !dir.isBlank()) {
+            // One subdirectory per rules version; older ones are simply never read again
+            this.diskDir = Files.createDirectories(Path.of(dir, "v" + PdfExtractor.RULES_VERSION));
+        } else {
+            this.diskDir = null;
+        }
+        logger.info("⚙️ Extraction cache: enabled={}, memory={}MB, disk={}", enabled, maxMemoryMb,
+                diskDir != null ? diskDir.toAbsolutePath() : "off");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String key(InputStream pdf, String rulesVersion) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(pdf, digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return rulesVersion + "-" + HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** The cached row, immutable and shared between callers, or {@code null} on a miss. */
+    public Map<String, String> get(String key) {
+        Map<String, String> row;
+        synchronized (this) {
+            row = memory.get(key);
+        }
+        if (row != null) {
+            memoryHits.incrementAndGet();
+            return row;
+        }
+
+        row = readDisk(key);
+        if (row != null) {
+            diskHits.incrementAndGet();
+            row = compact(row);
+            putMemory(key, row);
+            return row;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String key, Map<String, String> row) {
+        Map<String, String> stored = compact(row);
+        putMemory(key, stored);
+        writeDisk(key, stored);
+    }
+
+    // Rows from the extractor already are compact; anything else is copied into one
+    private static Map<String, String> compact(Map<String, String> row) {
+        if (row instanceof CompactRow) {
+            return row;
+        }
+        return CompactRow.of(RowSchema.of(row.keySet()), row.values().toArray(String[]::new));
+    }
+
+    private synchronized void putMemory(String key, Map<String, String> row) {
+        long rowWeight = weigh(key, row);
+        if (rowWeight > maxWeight) {
+            return;
+        }
+        Map<String, String> previous = memory.put(key, row);
+        if (previous != null) {
+            weight -= weigh(key, previous);
+        }
+        weight += rowWeight;
+
+        var it = memory.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            var eldest = it.next();
+            weight -= weigh(eldest.getKey(), eldest.getValue());
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private Map<String, String> readDisk(String key) {
+        if (diskDir == null) {
+            return null;
+        }
+        Path file = diskDir.resolve(key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return mapper.readValue(file.toFile(), ROW_TYPE);
+        } catch (IOException e) {
+            logger.warn("⚠️ Ignoring unreadable cache entry {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, Map<String, String> row) {
+        if (diskDir == null) {
+            return;
+        }
+        try {
+            Path tmp = Files.createTempFile(diskDir, "entry-", ".tmp");
+            mapper.writeValue(tmp.toFile(), row);
+            Files.move(tmp, diskDir.resolve(key + ".json"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The memory tier still has it; a lost disk entry only costs a re-parse after restart
+            logger.warn("⚠️ Could not persist cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    // Rough heap footprint: two bytes per character plus a slot and string header per value; the
+    // column names belong to the shared schema
+    private static long weigh(String key, Map<String, String> row) {
+        long chars = key.length();
+        for (String value : row.values()) {
+            chars += value.length();
+        }
+        return chars * 2 + 48L * (row.size() + 1);
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long hits = memoryHits.get() + diskHits.get();
+        long lookups = hits + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("rulesVersion", PdfExtractor.RULES_VERSION);
+        stats.put("entries", memory.size());
+        stats.put("weightBytes", weight);
+        stats.put("maxWeightBytes", maxWeight);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", lookups == 0 ? 0 : (double) hits / lookups);
+        return stats;
+    }
+}
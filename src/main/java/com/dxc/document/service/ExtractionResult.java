@@ -0,0 +1,21 @@
+package com.dxc.document.service;
+
+import java.util.Map;
+
+import com.dxc.document.utility.ExtractionReport;
+
+// report is null for failures and cache hits
+public record ExtractionResult(String fileName, Map<String, String> data, String error, ExtractionReport report) {
+
+    public static ExtractionResult success(String fileName, Map<String, String> data, ExtractionReport report) {
+        return new ExtractionResult(fileName, data, null, report);
+    }
+
+    public static ExtractionResult failure(String fileName, String error) {
+        return new ExtractionResult(fileName, null, error, null);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
@@ -0,0 +1,303 @@
+package com.dxc.document.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dxc.document.utility.ExtractionLimits;
+import com.dxc.document.utility.ExtractionReport;
+import com.dxc.document.utility.ExtractionTemplates;
+import com.dxc.document.utility.PdfExtractor;
+import com.dxc.document.utility.PipelineMetrics;
+
+import io.micrometer.core.instrument.Counter;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class ExtractionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionService.class);
+
+    private static final Counter EXTRACTED = PipelineMetrics.documents("extracted");
+    private static final Counter CACHE_HITS = PipelineMetrics.documents("cache_hit");
+    private static final Counter FAILED = PipelineMetrics.documents("failed");
+
+    private final ThreadPoolExecutor executor;
+    private final long fileTimeoutNanos;
+    private final ExtractionCache cache;
+    private final ExtractionTemplateService templates;
+    private final ExtractionLimits limits;
+
+    public ExtractionService(ExtractionCache cache, ExtractionTemplateService templates,
+                             @Value("${converter.extraction.pool-size:0}") int poolSize,
+                             @Value("${converter.extraction.queue-capacity:1000}") int queueCapacity,
+                             @Value("${converter.extraction.file-timeout-seconds:120}") long fileTimeoutSeconds,
+                             @Value("${converter.extraction.max-main-memory-mb:16}") long maxMainMemoryMb,
+                             @Value("${converter.extraction.max-scratch-mb:512}") long maxScratchMb,
+                             @Value("${converter.extraction.max-pages:500}") int maxPages,
+                             @Value("${converter.extraction.max-text-chars:5000000}") int maxTextChars) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        // Full queue -> the file is rejected and reported as failed; running it on the request thread
+        // would escape the per-file timeout and cancellation
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory("pdf-extract"),
+                new ThreadPoolExecutor.AbortPolicy());
+        PipelineMetrics.monitor("pdf-extract", executor);
+        this.fileTimeoutNanos = TimeUnit.SECONDS.toNanos(fileTimeoutSeconds);
+        this.cache = cache;
+        this.templates = templates;
+        this.limits = new ExtractionLimits(maxMainMemoryMb * 1024 * 1024, maxScratchMb * 1024 * 1024, maxPages, maxTextChars);
+        logger.info("⚙️ Extraction pool ready: threads={}, queue={}, timeout={}s", threads, queueCapacity, fileTimeoutSeconds);
+        logger.info("⚙️ Per-document limits: memory={}MB, scratch={}MB, pages={}, textChars={}",
+                maxMainMemoryMb, maxScratchMb, maxPages, maxTextChars);
+    }
+
+    /**
+     * Extracts every file on the worker pool. Results come back in upload order;
+     * a file that fails or times out is reported without affecting the others.
+     */
+    public List<ExtractionResult> extractAll(MultipartFile[] files) {
+        List<ExtractionResult> results = new ArrayList<>(files.length);
+        submitAll(files).forEachRemaining(results::add);
+        return results;
+    }
+
+    /**
+     * Starts extracting every file and returns at once. {@code next()} blocks until the next file in
+     * upload order is done, so a caller can pass each result on while later files are still running.
+     */
+    public ExtractionBatch submitAll(MultipartFile[] files) {
+        List<ExtractionTask> tasks = new ArrayList<>(files.length);
+        ExtractionTemplates rules = templates.current();
+        for (MultipartFile file : files) {
+            tasks.add(new ExtractionTask(file.getOriginalFilename(), new UploadSource(file, limits), cache, rules));
+        }
+        return new ExtractionBatch(submit(tasks), rules.columns());
+    }
+
+    // Same as above for files already on disk (owned by the caller); the listener sees each result in order
+    public List<ExtractionResult> extractFiles(List<String> names, List<File> files, Consumer<ExtractionResult> listener) {
+        List<ExtractionTask> tasks = new ArrayList<>(files.size());
+        ExtractionTemplates rules = templates.current();
+        for (int i = 0; i < files.size(); i++) {
+            tasks.add(new ExtractionTask(names.get(i), new FileSource(files.get(i), limits), cache, rules));
+        }
+        return run(tasks, listener);
+    }
+
+    private List<ExtractionResult> run(List<ExtractionTask> tasks, Consumer<ExtractionResult> listener) {
+        List<ExtractionResult> results = new ArrayList<>(tasks.size());
+        submit(tasks).forEachRemaining(result -> {
+            listener.accept(result);
+            results.add(result);
+        });
+        return results;
+    }
+
+    private Iterator<ExtractionResult> submit(List<ExtractionTask> tasks) {
+        List<Future<Map<String, String>>> futures = new ArrayList<>(tasks.size());
+        for (ExtractionTask task : tasks) {
+            try {
+                futures.add(executor.submit(task));
+            } catch (RejectedExecutionException e) {
+                logger.warn("🚦 Extraction queue full, rejecting {}", task.fileName());
+                futures.add(CompletableFuture.failedFuture(new RejectedExecutionException("Server busy, try again later")));
+            }
+        }
+
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < tasks.size();
+            }
+
+            @Override
+            public ExtractionResult next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int i = next++;
+                return await(tasks.get(i), futures.get(i));
+            }
+        };
+    }
+
+    private ExtractionResult await(ExtractionTask task, Future<Map<String, String>> future) {
+        ExtractionResult result = awaitResult(task, future);
+        if (!result.succeeded()) {
+            FAILED.increment();
+        }
+        return result;
+    }
+
+    private ExtractionResult awaitResult(ExtractionTask task, Future<Map<String, String>> future) {
+        String name = task.fileName();
+        try {
+            while (true) {
+                long startedAt = task.startedAt;
+                // The timeout only counts once a worker has picked the file up, not while it is queued
+                long waitNanos = startedAt == 0 ? fileTimeoutNanos : startedAt + fileTimeoutNanos - System.nanoTime();
+                try {
+                    return ExtractionResult.success(name, future.get(Math.max(waitNanos, 0), TimeUnit.NANOSECONDS),
+                            task.report());
+                } catch (TimeoutException e) {
+                    startedAt = task.startedAt;
+                    if (startedAt != 0 && System.nanoTime() - startedAt >= fileTimeoutNanos) {
+                        future.cancel(true);
+                        logger.warn("⏱️ Extraction timed out: {}", name);
+                        return ExtractionResult.failure(name, "Timed out after "
+                                + TimeUnit.NANOSECONDS.toSeconds(fileTimeoutNanos) + "s");
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("❌ Extraction failed for {}: {}", name, cause.getMessage());
+            return ExtractionResult.failure(name, String.valueOf(cause.getMessage()));
+        } catch (CancellationException e) {
+            return ExtractionResult.failure(name, "Cancelled");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return ExtractionResult.failure(name, "Interrupted");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Where a task reads its PDF from; opened once for the cache key and once more for parsing on a miss
+    private interface PdfSource {
+        InputStream open() throws IOException;
+
+        long size();
+
+        Map<String, String> extract(String name, ExtractionTemplates templates, ExtractionReport report) throws IOException;
+    }
+
+    // Read straight from the multipart part (Spring deletes its temp file when the request ends),
+    // with PDFBox buffering the stream within the per-document memory limits
+    private record UploadSource(MultipartFile file, ExtractionLimits limits) implements PdfSource {
+        @Override
+        public InputStream open() throws IOException {
+            return file.getInputStream();
+        }
+
+        @Override
+        public long size() {
+            return file.getSize();
+        }
+
+        @Override
+        public Map<String, String> extract(String name, ExtractionTemplates templates, ExtractionReport report)
+                throws IOException {
+            try (InputStream in = file.getInputStream()) {
+                return PdfExtractor.extractFieldsFromPdf(in, name, limits, templates, report);
+            }
+        }
+    }
+
+    // Already on disk (owned by the caller): PDFBox reads the file directly
+    private record FileSource(File file, ExtractionLimits limits) implements PdfSource {
+        @Override
+        public InputStream open() throws IOException {
+            return Files.newInputStream(file.toPath());
+        }
+
+        @Override
+        public long size() {
+            return file.length();
+        }
+
+        @Override
+        public Map<String, String> extract(String name, ExtractionTemplates templates, ExtractionReport report)
+                throws IOException {
+            return PdfExtractor.extractFieldsFromPdf(file, limits, templates, report);
+        }
+    }
+
+    private static final class ExtractionTask implements Callable<Map<String, String>> {
+
+        private final String name;
+        private final PdfSource source;
+        private final ExtractionCache cache;
+        // Captured when the batch is submitted: a template reload mid-batch does not mix rule versions
+        private final ExtractionTemplates templates;
+        private volatile long startedAt;
+        private volatile ExtractionReport report;
+
+        ExtractionTask(String name, PdfSource source, ExtractionCache cache, ExtractionTemplates templates) {
+            this.name = name;
+            this.source = source;
+            this.cache = cache;
+            this.templates = templates;
+        }
+
+        String fileName() {
+            return name;
+        }
+
+        ExtractionReport report() {
+            return report;
+        }
+
+        @Override
+        public Map<String, String> call() throws IOException {
+            startedAt = System.nanoTime();
+            if (!cache.isEnabled()) {
+                return extract();
+            }
+
+            String key;
+            try (InputStream in = source.open()) {
+                key = cache.key(in, templates.version());
+            }
+            Map<String, String> cached = cache.get(key);
+            if (cached != null) {
+                logger.info("♻️ Cache hit for {}", name);
+                CACHE_HITS.increment();
+                return cached;
+            }
+            Map<String, String> data = extract();
+            cache.put(key, data);
+            return data;
+        }
+
+        private Map<String, String> extract() throws IOException {
+            ExtractionReport report = new ExtractionReport(name);
+            Map<String, String> data = source.extract(name, templates, report);
+            this.report = report;
+            EXTRACTED.increment();
+            PipelineMetrics.EXTRACTED_BYTES.increment(source.size());
+            return data;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.dxc.document.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dxc.document.utility.ExtractionTemplate;
+import com.dxc.document.utility.ExtractionTemplates;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The extraction templates in effect: the built-in job description layout plus every *.yaml, *.yml and
+ * *.json file in {@code converter.templates.dir} (a file naming an existing template replaces it).
+ * The directory is polled for changes; a set that fails to compile is logged and the previous one stays
+ * active, so a bad edit never stops extraction.
+ */
+@Service
+public class ExtractionTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionTemplateService.class);
+
+    private final Path dir;
+    private final ScheduledExecutorService watcher;
+    private volatile ExtractionTemplates current;
+    // File name -> "modified:size" of the files the current set was compiled from
+    private Map<String, String> loadedState;
+
+    public ExtractionTemplateService(@Value("${converter.templates.dir:extraction-templates}") String dir,
+                                     @Value("${converter.templates.reload-seconds:10}") long reloadSeconds)
+            throws IOException {
+        this.dir = dir.isBlank() ? null : Path.of(dir);
+        // Templates that do not compile at startup fail the startup
+        this.loadedState = state();
+        this.current = load();
+        logger.info("⚙️ Extraction templates {} (version {}) from {}", names(current), current.version(),
+                this.dir != null && Files.isDirectory(this.dir) ? this.dir.toAbsolutePath() : "classpath only");
+
+        if (this.dir != null && reloadSeconds > 0) {
+            this.watcher = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("template-reload"));
+            watcher.scheduleWithFixedDelay(this::reloadIfChanged, reloadSeconds, reloadSeconds, TimeUnit.SECONDS);
+        } else {
+            this.watcher = null;
+        }
+    }
+
+    public ExtractionTemplates current() {
+        return current;
+    }
+
+    // Recompiles when a template file was added, removed or changed since the last (attempted) load
+    synchronized void reloadIfChanged() {
+        try {
+            Map<String, String> state = state();
+            if (state.equals(loadedState)) {
+                return;
+            }
+            loadedState = state;
+            ExtractionTemplates reloaded = load();
+            current = reloaded;
+            logger.info("🔄 Reloaded extraction templates {} (version {})", names(reloaded), reloaded.version());
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            logger.error("❌ Extraction templates not reloaded, keeping version {}: {}", current.version(), e.getMessage());
+        }
+    }
+
+    private ExtractionTemplates load() throws IOException {
+        Map<String, ExtractionTemplates.Source> byName = new LinkedHashMap<>();
+        ExtractionTemplates.Source builtIn = ExtractionTemplates.builtInSource();
+        byName.put(ExtractionTemplates.parse(builtIn.name(), builtIn.content()).name(), builtIn);
+        for (Path file : files()) {
+            ExtractionTemplates.Source source = new ExtractionTemplates.Source(file.toString(), Files.readAllBytes(file));
+            String name = ExtractionTemplates.parse(source.name(), source.content()).name();
+            ExtractionTemplates.Source previous = byName.get(name);
+            if (previous != null && previous != builtIn) {
+                throw new IllegalArgumentException("Duplicate template name " + name + " in " + previous.name()
+                        + " and " + source.name());
+            }
+            byName.put(name, source);
+        }
+        return ExtractionTemplates.compile(new ArrayList<>(byName.values()));
+    }
+
+    private Map<String, String> state() throws IOException {
+        Map<String, String> state = new TreeMap<>();
+        for (Path file : files()) {
+            state.put(file.getFileName().toString(), Files.getLastModifiedTime(file).toMillis() + ":" + Files.size(file));
+        }
+        return state;
+    }
+
+    // Sorted so the set (and its version) does not depend on directory order
+    private List<Path> files() throws IOException {
+        if (dir == null || !Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString().toLowerCase();
+                        return name.endsWith(".yaml") || name.endsWith(".yml") || name.endsWith(".json");
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static List<String> names(ExtractionTemplates templates) {
+        return templates.templates().stream().map(ExtractionTemplate::name).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+}
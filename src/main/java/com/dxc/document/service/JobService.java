@@ -0,0 +1,173 @@
+package com.dxc.document.service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dxc.document.utility.PipelineMetrics;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class JobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+
+    private final ExtractionService extractionService;
+    private final ExcelOutputService excelOutputService;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService eviction;
+    private final Map<String, ConversionJob> jobs = new ConcurrentHashMap<>();
+    private final long retentionMillis;
+
+    public JobService(ExtractionService extractionService, ExcelOutputService excelOutputService,
+                      @Value("${converter.jobs.workers:2}") int workers,
+                      @Value("${converter.jobs.queue-capacity:20}") int queueCapacity,
+                      @Value("${converter.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.extractionService = extractionService;
+        this.excelOutputService = excelOutputService;
+        // AbortPolicy: a full queue is reported to the client (429) instead of buffering more uploads
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory("conversion-job"),
+                new ThreadPoolExecutor.AbortPolicy());
+        PipelineMetrics.monitor("conversion-job", executor);
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+        // Finished jobs expire on a timer, so an idle server does not keep their work directories
+        this.eviction = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("conversion-job-eviction"));
+        eviction.scheduleWithFixedDelay(this::evictExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Spools the uploads to a job directory and queues the job; its rows go to the named output, and
+     * its result file is in that output's format ({@code format} may be null, see
+     * {@link ExcelOutputService#append(String, OutputFormat, Set, List)}).
+     *
+     * @throws RejectedExecutionException when the job queue is full
+     * @throws IllegalArgumentException when the output exists in another format
+     */
+    public ConversionJob submit(MultipartFile[] files, String output, OutputFormat format) throws IOException {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Job queue is full");
+        }
+        OutputFormat resolved = excelOutputService.resolveFormat(output, format);
+
+        // Multipart parts disappear with the request, so the job keeps its own copies
+        Path workDir = Files.createTempDirectory("conversion-job-");
+        List<String> names = new ArrayList<>(files.length);
+        long[] sizes = new long[files.length];
+        long writeStart = System.nanoTime();
+        try {
+            for (int i = 0; i < files.length; i++) {
+                files[i].transferTo(workDir.resolve(String.format("%04d.pdf", i)));
+                names.add(files[i].getOriginalFilename());
+                sizes[i] = files[i].getSize();
+            }
+            PipelineMetrics.record(PipelineMetrics.TEMP_FILE_WRITE, writeStart);
+        } catch (IOException e) {
+            deleteRecursively(workDir);
+            throw e;
+        }
+
+        ConversionJob job = new ConversionJob(workDir, names, sizes, output, resolved);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteRecursively(workDir);
+            throw e;
+        }
+        logger.info("📥 Job {} queued with {} file(s)", job.getId(), names.size());
+        return job;
+    }
+
+    public ConversionJob get(String id) {
+        return jobs.get(id);
+    }
+
+    private void run(ConversionJob job) {
+        job.markRunning();
+        logger.info("▶️ Job {} started", job.getId());
+        List<String> names = job.getFileNames();
+        List<File> pdfs = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            pdfs.add(job.getWorkDir().resolve(String.format("%04d.pdf", i)).toFile());
+        }
+        try {
+            BatchSummary summary;
+            try {
+                summary = BatchSummary.of(extractionService.extractFiles(names, pdfs, job::fileDone));
+            } finally {
+                for (File pdf : pdfs) {
+                    pdf.delete();
+                }
+            }
+
+            if (!summary.hasRows()) {
+                job.fail("No files could be processed.");
+                logger.warn("❌ Job {} produced no rows", job.getId());
+                return;
+            }
+
+            excelOutputService.append(job.getOutput(), job.getFormat(), summary.getHeaders(), summary.getRows());
+
+            Path result = job.getWorkDir().resolve("result." + job.getFormat().extension());
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(result))) {
+                excelOutputService.write(job.getFormat(), os, summary.getHeaders(), summary.getRows());
+            }
+            job.complete(result);
+            logger.info("✅ Job {} completed: {} ok, {} failed", job.getId(),
+                    summary.getSucceeded().size(), summary.getFailed().size());
+        } catch (Exception e) {
+            logger.error("❌ Job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.fail("Failed to process files.");
+        }
+    }
+
+    private void evictExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> {
+            if (job.isFinished() && job.getFinishedAt() < cutoff) {
+                deleteRecursively(job.getWorkDir());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            logger.debug("Could not clean up {}: {}", dir, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        eviction.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,42 @@
+package com.dxc.document.service;
+
+import java.util.Locale;
+
+import com.dxc.document.utility.TextRowFormat;
+
+/**
+ * File format of an output. XLSX goes through the journal and workbook rebuild; CSV and NDJSON files
+ * are appended to directly.
+ */
+public enum OutputFormat {
+    XLSX("xlsx", "application/octet-stream", null),
+    CSV("csv", "text/csv", TextRowFormat.CSV),
+    NDJSON("ndjson", "application/x-ndjson", TextRowFormat.NDJSON);
+
+    private final String extension;
+    private final String contentType;
+    private final TextRowFormat textFormat;
+
+    OutputFormat(String extension, String contentType, TextRowFormat textFormat) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.textFormat = textFormat;
+    }
+
+    public static OutputFormat from(String value) {
+        return OutputFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    // Null for XLSX
+    TextRowFormat textFormat() {
+        return textFormat;
+    }
+}
@@ -0,0 +1,12 @@
+package com.dxc.document.service;
+
+/**
+ * Thrown when a batch does not fit an existing output: the output is stored in another format, or its
+ * CSV header lacks some of the batch's columns. The client's request is at fault, not the server.
+ */
+public class OutputMismatchException extends IllegalArgumentException {
+
+    public OutputMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,135 @@
+package com.dxc.document.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One named output file, in whatever {@link OutputFormat} it was created with. The registry only
+ * appends, takes download snapshots and closes; how rows reach the file is up to the implementation.
+ */
+abstract class OutputSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutputSink.class);
+    // Downloads open their snapshot only after the handler returns (sendfile, Range resource, streamed
+    // copy); a replaced snapshot stays this long so none of them finds it gone. Once open, deleting is harmless
+    private static final long RETIRED_SNAPSHOT_GRACE_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private record RetiredSnapshot(Path file, long retiredAt) {
+    }
+
+    private final String name;
+    private final Path file;
+    private final String snapshotPrefix;
+    // Replaced snapshots, oldest first
+    private final ConcurrentLinkedQueue<RetiredSnapshot> retired = new ConcurrentLinkedQueue<>();
+    private volatile long lastUsed = System.currentTimeMillis();
+    // Callers currently using this output; only read and written inside the registry's map compute calls
+    int users;
+
+    OutputSink(String name, Path file) {
+        this.name = name;
+        this.file = file;
+        this.snapshotPrefix = file.getFileName() + ".snapshot-";
+    }
+
+    String name() {
+        return name;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long lastUsed() {
+        return lastUsed;
+    }
+
+    void touch() {
+        lastUsed = System.currentTimeMillis();
+    }
+
+    abstract OutputFormat format();
+
+    // Blocks until the rows are durable
+    abstract void append(Set<String> headers, List<Map<String, String>> rows) throws IOException;
+
+    /**
+     * Snapshot to serve for a download, or {@code null} before anything was written. Repeated calls
+     * without new rows return the same snapshot.
+     */
+    abstract DownloadSnapshot snapshot() throws IOException;
+
+    // Brings the file up to date with everything appended; a no-op where appends already are the file
+    void materializeQuietly() {
+    }
+
+    abstract void close() throws IOException;
+
+    // Names a new snapshot of this output taken at seq
+    Path snapshotFile(long seq) {
+        return file.toAbsolutePath().resolveSibling(snapshotPrefix + seq + "-" + System.currentTimeMillis());
+    }
+
+    // Hashes an already written snapshot file for its ETag
+    DownloadSnapshot describeSnapshot(Path snapshotFile, long seq) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(snapshotFile), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        long lastModified = Files.getLastModifiedTime(snapshotFile).toMillis();
+        logger.info("📸 New download snapshot of {} at {}: {}", name, seq, etag);
+        return new DownloadSnapshot(snapshotFile, seq, etag, lastModified, Files.size(snapshotFile), format());
+    }
+
+    // Called when a newer snapshot replaces this one; the file goes once the grace period is over
+    void retireSnapshot(DownloadSnapshot old) {
+        retired.add(new RetiredSnapshot(old.file(), System.currentTimeMillis()));
+        deleteRetiredSnapshots();
+    }
+
+    void deleteRetiredSnapshots() {
+        long cutoff = System.currentTimeMillis() - RETIRED_SNAPSHOT_GRACE_MILLIS;
+        RetiredSnapshot oldest;
+        while ((oldest = retired.peek()) != null && oldest.retiredAt() <= cutoff) {
+            if (retired.remove(oldest)) {
+                try {
+                    Files.deleteIfExists(oldest.file());
+                } catch (IOException e) {
+                    logger.warn("⚠️ Could not delete old snapshot {}: {}", oldest.file(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Snapshots left behind by a previous run
+    void deleteSnapshots() throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(dir, snapshotPrefix + "*")) {
+            for (Path snapshot : stale) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+}
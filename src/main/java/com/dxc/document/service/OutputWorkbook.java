@@ -0,0 +1,202 @@
+package com.dxc.document.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dxc.document.utility.ColumnWidthEstimator;
+import com.dxc.document.utility.ExcelWriterUtil;
+import com.dxc.document.utility.PipelineMetrics;
+import com.dxc.document.utility.StreamingExcelWriter;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * One named output workbook with its own writer thread, journal and locks, so independent outputs
+ * append in parallel. Appended rows are first recorded in a fsync'd {@link RowJournal}; the workbook
+ * is rebuilt from the journal lazily (on download, on a schedule, when closed) and swapped in
+ * atomically, and batches left in the journal by a crash are replayed when the output is opened.
+ * Downloads are served from an immutable {@link DownloadSnapshot} replaced only once new rows are applied.
+ */
+class OutputWorkbook extends OutputSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutputWorkbook.class);
+
+    record Settings(boolean streamingMode, int rowWindow, ColumnWidthEstimator.Mode widthMode,
+                    int maxBatchRows, long lingerMillis) {
+    }
+
+    private final String path;
+    private final boolean streamingMode;
+    private final int rowWindow;
+    private final ColumnWidthEstimator.Mode widthMode;
+    private final ExcelAppendQueue appendQueue;
+    private final RowJournal journal;
+    // Appends only ever take journalLock, so a workbook rebuild never holds up an upload
+    private final Object journalLock = new Object();
+    private final Object workbookLock = new Object();
+    private final Timer journalLockWait = PipelineMetrics.lockWait("journal");
+    private final Timer workbookLockWait = PipelineMetrics.lockWait("workbook");
+    private long appliedSeq;
+    private volatile long journaledSeq;
+    private volatile DownloadSnapshot snapshot;
+
+    OutputWorkbook(String name, Path file, Settings settings) throws IOException {
+        super(name, file);
+        this.path = file.toString();
+        this.streamingMode = settings.streamingMode();
+        this.rowWindow = settings.rowWindow();
+        this.widthMode = settings.widthMode();
+
+        this.appliedSeq = streamingMode ? StreamingExcelWriter.journalSeq(path) : ExcelWriterUtil.journalSeq(path);
+        this.journal = new RowJournal(Path.of(path + ".journal"), appliedSeq);
+        this.journaledSeq = journal.lastSeq();
+        deleteSnapshots();
+        materialize();
+
+        this.appendQueue = new ExcelAppendQueue("excel-writer-" + name, this::write, settings.maxBatchRows(),
+                settings.lingerMillis());
+    }
+
+    @Override
+    OutputFormat format() {
+        return OutputFormat.XLSX;
+    }
+
+    // Blocks until the rows are durable in the journal; concurrent callers share one journal write
+    @Override
+    void append(Set<String> headers, List<Map<String, String>> rows) throws IOException {
+        try {
+            appendQueue.submit(headers, rows).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io : new IOException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the Excel append");
+        }
+    }
+
+    private void write(Set<String> headers, List<Map<String, String>> rows) throws IOException {
+        long seq;
+        long waitStart = System.nanoTime();
+        synchronized (journalLock) {
+            PipelineMetrics.record(journalLockWait, waitStart);
+            seq = journal.append(headers, rows);
+            journaledSeq = seq;
+        }
+        logger.info("Data journaled for {}: {} rows (batch {})", path, rows.size(), seq);
+    }
+
+    // Applies journaled batches the workbook does not contain yet, then drops them from the journal
+    void materialize() throws IOException {
+        long waitStart = System.nanoTime();
+        synchronized (workbookLock) {
+            PipelineMetrics.record(workbookLockWait, waitStart);
+            List<RowJournal.Entry> pending;
+            synchronized (journalLock) {
+                pending = journal.pending(appliedSeq);
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            logger.info("🔄 Applying {} journaled batch(es) to {}", pending.size(), path);
+
+            // Consecutive batches with the same columns go into the workbook with one write
+            int from = 0;
+            while (from < pending.size()) {
+                Set<String> headers = pending.get(from).headers();
+                List<Map<String, String>> rows = new ArrayList<>();
+                int to = from;
+                while (to < pending.size() && pending.get(to).headers().equals(headers)) {
+                    rows.addAll(pending.get(to).rows());
+                    to++;
+                }
+                long seq = pending.get(to - 1).seq();
+                if (streamingMode) {
+                    StreamingExcelWriter.appendDataToExcel(path, headers, rows, rowWindow, widthMode, seq);
+                } else {
+                    ExcelWriterUtil.appendDataToExcel(path, headers, rows, widthMode, seq);
+                }
+                appliedSeq = seq;
+                from = to;
+            }
+            synchronized (journalLock) {
+                journal.discardUpTo(appliedSeq);
+            }
+            logger.info("Data appended to Excel successfully. Path: {}", path);
+        }
+    }
+
+    @Override
+    void materializeQuietly() {
+        try {
+            materialize();
+        } catch (Exception e) {
+            // The rows stay in the journal and are retried on the next run or download
+            logger.error("❌ Materialization of {} failed: {}", name(), e.getMessage(), e);
+        }
+    }
+
+    // Repeated calls without new rows do not touch the workbook or take a lock
+    @Override
+    DownloadSnapshot snapshot() throws IOException {
+        DownloadSnapshot current = snapshot;
+        if (current != null && current.seq() == journaledSeq) {
+            return current;
+        }
+
+        long waitStart = System.nanoTime();
+        synchronized (workbookLock) {
+            PipelineMetrics.record(workbookLockWait, waitStart);
+            materialize();
+            if (streamingMode) {
+                StreamingExcelWriter.materialize(path, rowWindow);
+            }
+            current = snapshot;
+            if (current == null || current.seq() != appliedSeq) {
+                DownloadSnapshot next = createSnapshot();
+                if (next != null) {
+                    snapshot = next;
+                    if (current != null) {
+                        retireSnapshot(current);
+                    }
+                }
+                current = snapshot;
+            }
+            return current;
+        }
+    }
+
+    private DownloadSnapshot createSnapshot() throws IOException {
+        Path source = Path.of(path).toAbsolutePath();
+        if (!Files.exists(source)) {
+            return null;
+        }
+        Path file = snapshotFile(appliedSeq);
+        try {
+            Files.createLink(file, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(source, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return describeSnapshot(file, appliedSeq);
+    }
+
+    // Stops the writer and brings the workbook up to date; the files stay for the next open
+    @Override
+    void close() throws IOException {
+        appendQueue.close();
+        materializeQuietly();
+        journal.close();
+    }
+}
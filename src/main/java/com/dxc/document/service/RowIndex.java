@@ -0,0 +1,238 @@
+package com.dxc.document.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Rows of one output held as arrays by column ordinal, with an inverted index from lower-cased
+ * letter/digit tokens to row ids for the indexed columns. Columns are added as batches bring new
+ * headers; a row shorter than the column list has "" in the missing columns. Rows are in the order
+ * their appends completed and are never changed once added, so a query can hand out the arrays.
+ */
+final class RowIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<String> columns = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String[]> rows = new ArrayList<>();
+    // Per column ordinal: token -> ids of the rows holding it in that column; null for unindexed columns
+    private final List<Map<String, Postings>> index = new ArrayList<>();
+
+    /** Adds {@code rows}, registering any header not seen before; {@code indexed} picks the columns to tokenize. */
+    void add(Collection<String> headers, List<Map<String, String>> batch, Predicate<String> indexed) {
+        lock.writeLock().lock();
+        try {
+            for (String header : headers) {
+                ordinal(header, indexed);
+            }
+            for (Map<String, String> row : batch) {
+                for (String column : row.keySet()) {
+                    ordinal(column, indexed);
+                }
+                int id = rows.size();
+                String[] values = new String[columns.size()];
+                Arrays.fill(values, "");
+                for (Map.Entry<String, String> entry : row.entrySet()) {
+                    int ordinal = ordinals.get(entry.getKey());
+                    String value = entry.getValue() == null ? "" : entry.getValue();
+                    values[ordinal] = value;
+                    Map<String, Postings> tokens = index.get(ordinal);
+                    if (tokens != null) {
+                        forEachToken(value, token -> tokens.computeIfAbsent(token, t -> new Postings()).add(id));
+                    }
+                }
+                rows.add(values);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<String> columns() {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows holding every token of {@code text} in some indexed column and matching every filter.
+     * A filter on an indexed column needs all of its tokens in that column; on any other column its
+     * value must occur in the cell, ignoring case.
+     *
+     * @param filters column name (any case) to value
+     * @throws IllegalArgumentException for a filter on a column this output does not have
+     */
+    Matches query(String text, Map<String, String> filters) {
+        lock.readLock().lock();
+        try {
+            BitSet hits = null;
+            for (String token : tokens(text)) {
+                BitSet any = new BitSet(rows.size());
+                for (Map<String, Postings> tokens : index) {
+                    Postings postings = tokens == null ? null : tokens.get(token);
+                    if (postings != null) {
+                        postings.addTo(any);
+                    }
+                }
+                hits = and(hits, any);
+            }
+
+            Map<Integer, String> scans = new HashMap<>();
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                int ordinal = resolve(filter.getKey());
+                Map<String, Postings> tokens = index.get(ordinal);
+                if (tokens == null) {
+                    scans.put(ordinal, filter.getValue().toLowerCase(Locale.ROOT));
+                    continue;
+                }
+                for (String token : tokens(filter.getValue())) {
+                    BitSet in = new BitSet(rows.size());
+                    Postings postings = tokens.get(token);
+                    if (postings != null) {
+                        postings.addTo(in);
+                    }
+                    hits = and(hits, in);
+                }
+            }
+
+            List<String[]> matches = new ArrayList<>();
+            int from = hits == null ? 0 : hits.nextSetBit(0);
+            for (int id = from; id >= 0 && id < rows.size(); id = hits == null ? id + 1 : hits.nextSetBit(id + 1)) {
+                String[] row = rows.get(id);
+                if (scans.isEmpty() || scanMatches(row, scans)) {
+                    matches.add(row);
+                }
+            }
+            return new Matches(List.copyOf(columns), matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ordinal of {@code column} (exact name first, then ignoring case). */
+    int resolve(String column) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(column);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).equalsIgnoreCase(column)) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Unknown column: " + column);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean scanMatches(String[] row, Map<Integer, String> scans) {
+        for (Map.Entry<Integer, String> scan : scans.entrySet()) {
+            int ordinal = scan.getKey();
+            String value = ordinal < row.length ? row[ordinal] : "";
+            if (!value.toLowerCase(Locale.ROOT).contains(scan.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BitSet and(BitSet hits, BitSet next) {
+        if (hits == null) {
+            return next;
+        }
+        hits.and(next);
+        return hits;
+    }
+
+    private int ordinal(String column, Predicate<String> indexed) {
+        Integer ordinal = ordinals.get(column);
+        if (ordinal == null) {
+            ordinal = columns.size();
+            columns.add(column);
+            ordinals.put(column, ordinal);
+            index.add(indexed.test(column) ? new HashMap<>() : null);
+        }
+        return ordinal;
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text != null) {
+            forEachToken(text, token -> {
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+            });
+        }
+        return tokens;
+    }
+
+    // Maximal runs of letters and digits, lower-cased
+    private static void forEachToken(String text, Consumer<String> action) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                action.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    /** Columns in ordinal order and the matching rows, oldest first. */
+    record Matches(List<String> columns, List<String[]> rows) {
+
+        String value(String[] row, int ordinal) {
+            return ordinal < row.length ? row[ordinal] : "";
+        }
+    }
+
+    // Ascending row ids; ids only ever grow, so a repeat of the same row is always the last entry
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void addTo(BitSet set) {
+            for (int i = 0; i < size; i++) {
+                set.set(ids[i]);
+            }
+        }
+    }
+}
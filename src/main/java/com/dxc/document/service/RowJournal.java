@@ -0,0 +1,239 @@
+package com.dxc.document.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dxc.document.utility.CompactRow;
+import com.dxc.document.utility.HeaderLookup;
+import com.dxc.document.utility.RowSchema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Append-only log of the batches written to an output workbook, one JSON line per batch. A batch is
+ * durable once {@link #append} returns (the line is fsync'd). Every batch carries a sequence number;
+ * the workbook records the last one it contains, so after a crash only newer batches are replayed.
+ * Batches the workbook does not contain yet are also kept in memory, so reading them back does not
+ * re-read the file. Not thread-safe: the owning service serializes access.
+ */
+class RowJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowJournal.class);
+
+    record Entry(long seq, Set<String> headers, List<Map<String, String>> rows) {
+    }
+
+    // An entry and the byte offset its line starts at
+    private record Line(Entry entry, long start) {
+    }
+
+    private final Path file;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private FileChannel channel;
+    private long lastSeq;
+    // Length of the well-formed prefix seen by the last read()
+    private long validLength;
+    // Bytes up to the end of the last acknowledged batch; a failed append is cut back to this
+    private long length;
+    // A failed append could not be rolled back: the file may hold a fragment, so nothing more goes after it
+    private boolean failed;
+    // Entries newer than the applied sequence number, oldest first
+    private ArrayDeque<Line> unapplied = new ArrayDeque<>();
+
+    RowJournal(Path file, long appliedSeq) throws IOException {
+        this.file = file;
+        this.channel = open(file);
+        long maxSeq = appliedSeq;
+        for (Line line : read()) {
+            maxSeq = Math.max(maxSeq, line.entry().seq());
+            if (line.entry().seq() > appliedSeq) {
+                unapplied.add(line);
+            }
+        }
+        this.lastSeq = maxSeq;
+        if (validLength < channel.size()) {
+            // A torn last line was never acknowledged to its caller: drop it
+            logger.warn("⚠️ Discarding {} bytes of incomplete journal tail in {}", channel.size() - validLength, file);
+            channel.truncate(validLength);
+            channel.force(true);
+        }
+        length = channel.size();
+        channel.position(length);
+    }
+
+    long lastSeq() {
+        return lastSeq;
+    }
+
+    long append(Set<String> headers, List<Map<String, String>> rows) throws IOException {
+        if (failed) {
+            throw new IOException("Journal " + file + " is unusable after a failed append");
+        }
+        long seq = lastSeq + 1;
+        ByteBuffer line = ByteBuffer.wrap(toLine(seq, headers, rows));
+        try {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            rollBack(e);
+            throw e;
+        }
+        unapplied.add(new Line(new Entry(seq, headers, rows), length));
+        length += line.limit();
+        lastSeq = seq;
+        return seq;
+    }
+
+    // Cuts a partly written line off again, so the next batch does not start glued to it. An
+    // interrupt closes the channel, so it is reopened first with the interrupt held back
+    private void rollBack(Exception cause) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            if (!channel.isOpen()) {
+                channel = open(file);
+            }
+            channel.truncate(length);
+            channel.force(true);
+            channel.position(length);
+        } catch (IOException e) {
+            failed = true;
+            cause.addSuppressed(e);
+            logger.error("❌ Could not roll back a failed append to {}: {}", file, e.getMessage());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private byte[] toLine(long seq, Set<String> headers, List<Map<String, String>> rows) throws IOException {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("seq", seq);
+        ArrayNode headerNode = node.putArray("headers");
+        headers.forEach(headerNode::add);
+        ArrayNode rowsNode = node.putArray("rows");
+        HeaderLookup lookup = new HeaderLookup(headers);
+        for (Map<String, String> row : rows) {
+            ArrayNode values = rowsNode.addArray();
+            for (int i = 0; i < lookup.size(); i++) {
+                values.add(lookup.value(row, i));
+            }
+        }
+        return (mapper.writeValueAsString(node) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    List<Entry> pending(long appliedSeq) {
+        List<Entry> pending = new ArrayList<>(unapplied.size());
+        for (Line line : unapplied) {
+            if (line.entry().seq() > appliedSeq) {
+                pending.add(line.entry());
+            }
+        }
+        return pending;
+    }
+
+    // Drops the batches the workbook now contains; batches appended meanwhile are kept
+    void discardUpTo(long appliedSeq) throws IOException {
+        while (!unapplied.isEmpty() && unapplied.peekFirst().entry().seq() <= appliedSeq) {
+            unapplied.removeFirst();
+        }
+        if (unapplied.isEmpty()) {
+            channel.truncate(0);
+            channel.force(true);
+            channel.position(0);
+            length = 0;
+            return;
+        }
+
+        // The kept lines are the tail of the file: copy their bytes as they are
+        long from = unapplied.peekFirst().start();
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "journal-", ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            long copied = 0;
+            while (copied < length - from) {
+                copied += channel.transferTo(from + copied, length - from - copied, out);
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open(file);
+        length = channel.size();
+        channel.position(length);
+        ArrayDeque<Line> moved = new ArrayDeque<>(unapplied.size());
+        for (Line line : unapplied) {
+            moved.add(new Line(line.entry(), line.start() - from));
+        }
+        unapplied = moved;
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private List<Line> read() throws IOException {
+        List<Line> lines = new ArrayList<>();
+        byte[] bytes = Files.readAllBytes(file);
+        int start = 0;
+        validLength = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = mapper.readTree(new String(bytes, start, i - start, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                if (i + 1 < bytes.length) {
+                    // Not a torn tail: dropping it would also drop the acknowledged batches after it
+                    throw new IOException("Corrupt journal line at byte " + start + " of " + file, e);
+                }
+                break;
+            }
+            lines.add(new Line(toEntry(node), start));
+            start = i + 1;
+            validLength = start;
+        }
+        return lines;
+    }
+
+    private static Entry toEntry(JsonNode node) {
+        List<String> headers = new ArrayList<>();
+        node.get("headers").forEach(h -> headers.add(h.asText()));
+        RowSchema schema = RowSchema.of(headers);
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (JsonNode values : node.get("rows")) {
+            String[] row = new String[schema.size()];
+            for (int col = 0; col < row.length; col++) {
+                row[col] = values.get(col).asText();
+            }
+            rows.add(CompactRow.of(schema, row));
+        }
+        return new Entry(node.get("seq").asLong(), schema.headers(), rows);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
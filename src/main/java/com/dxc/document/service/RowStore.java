@@ -0,0 +1,242 @@
+package com.dxc.document.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dxc.document.utility.ExtractionTemplate;
+import com.dxc.document.utility.StreamingExcelWriter;
+
+/**
+ * Every output's rows kept in memory in a {@link RowIndex}, so a query for a few rows needs no download
+ * of the whole file. The indexes are loaded from the outputs' snapshots at startup (an XLSX output
+ * is rebuilt from its journal first) and then follow every append.
+ */
+@Service
+public class RowStore implements ExcelOutputService.AppendListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowStore.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int LOAD_BATCH_ROWS = 1000;
+
+    private final ExtractionTemplateService templates;
+    private final boolean enabled;
+    private final Set<String> indexedColumns = new HashSet<>();
+    private final ConcurrentHashMap<String, RowIndex> indexes = new ConcurrentHashMap<>();
+
+    public RowStore(ExcelOutputService outputs, ExtractionTemplateService templates,
+                    @Value("${converter.store.enabled:true}") boolean enabled,
+                    @Value("${converter.store.indexed-columns:JOB TITLE,DEPARTMENT,DIVISION,LOCATION}") List<String> indexedColumns)
+            throws IOException {
+        this.templates = templates;
+        this.enabled = enabled;
+        indexedColumns.forEach(column -> this.indexedColumns.add(column.trim().toUpperCase(Locale.ROOT)));
+        if (!enabled) {
+            return;
+        }
+
+        // Loaded before the listener is added: no request can append until the context is up
+        long start = System.currentTimeMillis();
+        int total = 0;
+        for (Map<String, Object> output : outputs.listOutputs()) {
+            String name = (String) output.get("name");
+            DownloadSnapshot snapshot = outputs.snapshot(name);
+            if (snapshot != null) {
+                total += load(name, snapshot);
+            }
+        }
+        outputs.addAppendListener(this);
+        logger.info("🗂️ Row store loaded {} rows from {} outputs in {} ms", total, indexes.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Page of the rows of {@code output} matching {@code query}, or {@code null} for an output with no rows. */
+    public Page query(String output, RowQuery query) {
+        Selection selection = select(output, query);
+        if (selection == null) {
+            return null;
+        }
+        List<String[]> matches = selection.matches.rows();
+        int from = (int) Math.min((long) query.page() * query.size(), matches.size());
+        int to = Math.min(from + query.size(), matches.size());
+        List<Map<String, String>> rows = new ArrayList<>(to - from);
+        for (String[] row : matches.subList(from, to)) {
+            rows.add(selection.project(row));
+        }
+        return new Page(matches.size(), query.page(), query.size(), rows);
+    }
+
+    /**
+     * Every row of {@code output} matching {@code query} (its page and size ignored), with the columns
+     * they are projected on, or {@code null} for an output with no rows.
+     */
+    public Selection select(String output, RowQuery query) {
+        RowIndex index = indexes.get(output);
+        if (index == null) {
+            return null;
+        }
+        RowIndex.Matches matches = index.query(query.text(), query.filters());
+        List<String> columns = matches.columns();
+        int[] ordinals;
+        if (query.fields().isEmpty()) {
+            ordinals = new int[columns.size()];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = i;
+            }
+        } else {
+            ordinals = query.fields().stream().mapToInt(index::resolve).distinct().toArray();
+        }
+        Set<String> headers = new LinkedHashSet<>();
+        for (int ordinal : ordinals) {
+            headers.add(columns.get(ordinal));
+        }
+        return new Selection(headers, ordinals, matches);
+    }
+
+    @Override
+    public void appended(String output, Set<String> headers, List<Map<String, String>> rows) {
+        if (enabled) {
+            indexes.computeIfAbsent(output, name -> new RowIndex()).add(headers, rows, indexed());
+        }
+    }
+
+    @Override
+    public void deleted(String output) {
+        indexes.remove(output);
+    }
+
+    private int load(String output, DownloadSnapshot snapshot) throws IOException {
+        RowIndex index = new RowIndex();
+        Predicate<String> indexed = indexed();
+        List<Map<String, String>> batch = new ArrayList<>(LOAD_BATCH_ROWS);
+        Consumer<Map<String, String>> collect = row -> {
+            batch.add(row);
+            if (batch.size() == LOAD_BATCH_ROWS) {
+                index.add(List.of(), batch, indexed);
+                batch.clear();
+            }
+        };
+        if (snapshot.format() == OutputFormat.XLSX) {
+            StreamingExcelWriter.readRows(snapshot.file(), collect);
+        } else {
+            try (InputStream in = Files.newInputStream(snapshot.file())) {
+                snapshot.format().textFormat().readRows(in, collect);
+            }
+        }
+        index.add(List.of(), batch, indexed);
+        indexes.put(output, index);
+        return index.size();
+    }
+
+    // The configured columns plus the section columns of the templates in effect
+    private Predicate<String> indexed() {
+        Set<String> columns = new HashSet<>(indexedColumns);
+        for (ExtractionTemplate template : templates.current().templates()) {
+            template.sectionColumnNames().forEach(column -> columns.add(column.toUpperCase(Locale.ROOT)));
+        }
+        return column -> columns.contains(column.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @param text    words that must all occur in the indexed columns (null or blank = no condition)
+     * @param filters column to value, see {@link RowIndex#query}
+     * @param fields  columns to return, in this order (empty = all)
+     */
+    public record RowQuery(String text, Map<String, String> filters, List<String> fields, int page, int size) {
+
+        /**
+         * @param filters {@code COLUMN:value} pairs
+         * @throws IllegalArgumentException for a filter without a column or repeating one, or a negative page or size below 1
+         */
+        public static RowQuery of(String text, Collection<String> filters, List<String> fields, int page, int size) {
+            if (page < 0 || size < 1) {
+                throw new IllegalArgumentException("page must be >= 0 and size >= 1");
+            }
+            Map<String, String> parsed = new LinkedHashMap<>();
+            for (String filter : filters) {
+                int colon = filter.indexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Filter must be COLUMN:value, got " + filter);
+                }
+                if (parsed.put(filter.substring(0, colon).trim(), filter.substring(colon + 1)) != null) {
+                    throw new IllegalArgumentException("Column filtered twice: " + filter.substring(0, colon).trim());
+                }
+            }
+            List<String> columns = fields.stream().map(String::trim).filter(f -> !f.isEmpty()).toList();
+            return new RowQuery(text, parsed, columns, page, Math.min(size, MAX_PAGE_SIZE));
+        }
+    }
+
+    public record Page(int total, int page, int size, List<Map<String, String>> rows) {
+    }
+
+    /** Matching rows projected on {@link #headers()}; {@link #rows()} turns each into a map only as it is read. */
+    public static final class Selection {
+
+        private final Set<String> headers;
+        private final int[] ordinals;
+        private final RowIndex.Matches matches;
+
+        Selection(Set<String> headers, int[] ordinals, RowIndex.Matches matches) {
+            this.headers = headers;
+            this.ordinals = ordinals;
+            this.matches = matches;
+        }
+
+        public Set<String> headers() {
+            return headers;
+        }
+
+        public int size() {
+            return matches.rows().size();
+        }
+
+        public Iterator<Map<String, String>> rows() {
+            Iterator<String[]> rows = matches.rows().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Map<String, String> next() {
+                    return project(rows.next());
+                }
+            };
+        }
+
+        private Map<String, String> project(String[] row) {
+            Map<String, String> values = new LinkedHashMap<>();
+            List<String> columns = matches.columns();
+            for (int ordinal : ordinals) {
+                values.put(columns.get(ordinal), matches.value(row, ordinal));
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.dxc.document.utility;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Cheap replacement for {@code Sheet.autoSizeColumn}: widths come from a character count of the
+ * longest line in each cell, and the running per-column maximums are kept in a sidecar file next
+ * to the workbook, so an append only has to look at the rows it writes.
+ */
+public class ColumnWidthEstimator {
+
+    public enum Mode {
+        // Running maximum of the written values (default)
+        ESTIMATE,
+        // Width derived from the header text, set once when the header row is created
+        HEADER_ONCE,
+        // Legacy POI autoSizeColumn over the whole sheet
+        AUTOSIZE;
+
+        public static Mode from(String value) {
+            return Mode.valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    static final int MIN_CHARS = 10;
+    // Wrapped cells: wider columns only make the sheet harder to read
+    static final int MAX_CHARS = 60;
+    private static final int PADDING_CHARS = 2;
+
+    private final Path sidecar;
+    private final int[] maxChars;
+    private boolean changed;
+
+    private ColumnWidthEstimator(Path sidecar, int columns) {
+        this.sidecar = sidecar;
+        this.maxChars = new int[columns];
+    }
+
+    public static ColumnWidthEstimator load(String filePath, int columns) throws IOException {
+        ColumnWidthEstimator estimator = new ColumnWidthEstimator(Path.of(filePath + ".widths"), columns);
+        File file = estimator.sidecar.toFile();
+        if (file.exists()) {
+            Properties props = new Properties();
+            try (InputStream is = new FileInputStream(file)) {
+                props.load(is);
+            }
+            for (int i = 0; i < columns; i++) {
+                estimator.maxChars[i] = Integer.parseInt(props.getProperty(String.valueOf(i), "0"));
+            }
+        }
+        return estimator;
+    }
+
+    // Estimator for a one-off workbook: nothing is read from or stored to disk
+    public static ColumnWidthEstimator inMemory(int columns) {
+        return new ColumnWidthEstimator(null, columns);
+    }
+
+    public void observe(int col, String value) {
+        if (col >= maxChars.length || value == null || value.isEmpty()) {
+            return;
+        }
+        int chars = Math.min(longestLine(value), MAX_CHARS);
+        if (chars > maxChars[col]) {
+            maxChars[col] = chars;
+            changed = true;
+        }
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public void apply(Sheet sheet) {
+        for (int i = 0; i < maxChars.length; i++) {
+            sheet.setColumnWidth(i, widthFor(Math.max(maxChars[i], MIN_CHARS)));
+        }
+    }
+
+    public void store() throws IOException {
+        if (!changed || sidecar == null) {
+            return;
+        }
+        Properties props = new Properties();
+        for (int i = 0; i < maxChars.length; i++) {
+            props.setProperty(String.valueOf(i), String.valueOf(maxChars[i]));
+        }
+        Path target = sidecar.toAbsolutePath();
+        Path tmp = Files.createTempFile(target.getParent(), "widths-", ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp)) {
+            props.store(os, "column width estimates (characters)");
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        changed = false;
+    }
+
+    // Excel column width is expressed in 1/256 of a character
+    static int widthFor(int chars) {
+        return Math.min(chars + PADDING_CHARS, 255) * 256;
+    }
+
+    static int longestLine(String value) {
+        int longest = 0;
+        int current = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r') {
+                longest = Math.max(longest, current);
+                current = 0;
+            } else {
+                current++;
+            }
+        }
+        return Math.max(longest, current);
+    }
+}
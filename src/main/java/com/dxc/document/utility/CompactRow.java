@@ -0,0 +1,108 @@
+package com.dxc.document.utility;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * One extracted row: an array of values in {@link RowSchema} order instead of a map entry per column.
+ * Immutable, and still a {@code Map<String, String>} for code that looks values up by name; writers
+ * read it by ordinal through a {@link HeaderLookup}. Missing values are the shared "".
+ */
+public final class CompactRow extends AbstractMap<String, String> {
+
+    private final RowSchema schema;
+    private final String[] values;
+
+    // values is taken over, not copied: callers build it for this row only
+    CompactRow(RowSchema schema, String[] values) {
+        if (values.length != schema.size()) {
+            throw new IllegalArgumentException("Expected " + schema.size() + " values, got " + values.length);
+        }
+        this.schema = schema;
+        this.values = values;
+    }
+
+    /** Row of {@code schema} holding {@code values} in column order; null or empty values become "". */
+    public static CompactRow of(RowSchema schema, String... values) {
+        String[] stored = new String[schema.size()];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = schema.value(i, i < values.length ? values[i] : null);
+        }
+        return new CompactRow(schema, stored);
+    }
+
+    /** Headers of {@code row} in order, without copying them when it is a {@code CompactRow}. */
+    public static Set<String> headersOf(Map<String, String> row) {
+        return row instanceof CompactRow compact ? compact.schema.headers() : row.keySet();
+    }
+
+    public RowSchema schema() {
+        return schema;
+    }
+
+    public String value(int ordinal) {
+        return values[ordinal];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return schema.ordinal(key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        int ordinal = schema.ordinal(key);
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    @Override
+    public String getOrDefault(Object key, String defaultValue) {
+        int ordinal = schema.ordinal(key);
+        return ordinal < 0 ? defaultValue : values[ordinal];
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return schema.headers();
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return values.length;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < values.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        if (next >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return new SimpleImmutableEntry<>(schema.columns().get(i), values[i]);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package com.dxc.document.utility;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * RFC 4180 CSV: CRLF record ends, a field holding a comma, quote or line break (the multi-line bullet
+ * cells) is quoted with inner quotes doubled. Values go through the same formula-injection guard as
+ * the workbook, since CSV files are mostly opened in a spreadsheet.
+ */
+final class CsvRowFormat implements TextRowFormat {
+
+    @Override
+    public boolean hasHeader() {
+        return true;
+    }
+
+    @Override
+    public void appendHeader(StringBuilder out, Collection<String> headers) {
+        boolean first = true;
+        for (String header : headers) {
+            if (!first) {
+                out.append(',');
+            }
+            appendField(out, header);
+            first = false;
+        }
+        out.append("\r\n");
+    }
+
+    @Override
+    public void appendRow(StringBuilder out, HeaderLookup headers, Map<String, String> row) {
+        for (int i = 0; i < headers.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendField(out, ExcelWriterUtil.sanitize(headers.value(row, i)));
+        }
+        out.append("\r\n");
+    }
+
+    private static void appendField(StringBuilder out, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    @Override
+    public List<String> readHeader(InputStream in) throws IOException {
+        return readRecord(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public void readRows(InputStream in, Consumer<Map<String, String>> rows) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> headers = readRecord(reader);
+        if (headers == null) {
+            return;
+        }
+        RowSchema schema = RowSchema.of(headers);
+        for (List<String> fields = readRecord(reader); fields != null; fields = readRecord(reader)) {
+            String[] values = new String[schema.size()];
+            for (int i = 0; i < values.length && i < fields.size(); i++) {
+                values[i] = ExcelWriterUtil.unsanitize(fields.get(i));
+            }
+            rows.accept(CompactRow.of(schema, values));
+        }
+    }
+
+    // Fields of the next record, or null at the end of the input
+    private static List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (; c >= 0; c = reader.read()) {
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    field.append('"');
+                } else {
+                    reader.reset();
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Quotes and line feeds are single bytes in UTF-8, so records can be found without decoding
+    @Override
+    public long completeLength(InputStream in) throws IOException {
+        InputStream bytes = new BufferedInputStream(in);
+        boolean quoted = false;
+        long position = 0;
+        long complete = 0;
+        for (int b = bytes.read(); b >= 0; b = bytes.read()) {
+            position++;
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                complete = position;
+            }
+        }
+        return complete;
+    }
+}
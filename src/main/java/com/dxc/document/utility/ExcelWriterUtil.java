@@ -1,11 +1,19 @@
 package com.dxc.document.utility;
 
+import org.apache.poi.ooxml.POIXMLProperties;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
+import org.openxmlformats.schemas.officeDocument.x2006.customProperties.CTProperty;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -13,87 +21,205 @@ import java.util.Set;
 public class ExcelWriterUtil {
 	
 
-    private static final Object EXCEL_WRITE_LOCK = new Object();
-
 	private static final Logger logger = LoggerFactory.getLogger(ExcelWriterUtil.class);
 
+	private static final String JOURNAL_SEQ_PROPERTY = "journalSeq";
+
 	    public static void appendDataToExcel(String filePath, Set<String> headers, List<Map<String, String>> rows) throws IOException {
+	        appendDataToExcel(filePath, headers, rows, ColumnWidthEstimator.Mode.ESTIMATE);
+	    }
+
+	    public static void appendDataToExcel(String filePath, Set<String> headers, List<Map<String, String>> rows,
+	                                         ColumnWidthEstimator.Mode widthMode) throws IOException {
+	        appendDataToExcel(filePath, headers, rows, widthMode, -1);
+	    }
+
+	    // Not synchronized: concurrent appends to one file must be serialized by the caller (see ExcelAppendQueue).
+	    // journalSeq >= 0 is stored in the workbook so a journal replay knows these rows are already in it.
+	    public static void appendDataToExcel(String filePath, Set<String> headers, List<Map<String, String>> rows,
+	                                         ColumnWidthEstimator.Mode widthMode, long journalSeq) throws IOException {
 			logger.info("📄 Starting Excel append: {}", filePath);
-			synchronized (EXCEL_WRITE_LOCK) {
-				Workbook workbook;
-				Sheet sheet;
-				File file = new File(filePath);
-
-				if (file.exists()) {
-					logger.info("🔄 Existing Excel found. Appending to it.");
-					try (FileInputStream fis = new FileInputStream(file)) {
-						workbook = new XSSFWorkbook(fis);
-					}
-				} else {
-					logger.info("🆕 Excel file not found. Creating new workbook.");
-					workbook = new XSSFWorkbook();
+			XSSFWorkbook workbook;
+			Sheet sheet;
+			File file = new File(filePath);
+
+			long openStart = System.nanoTime();
+			if (file.exists()) {
+				logger.info("🔄 Existing Excel found. Appending to it.");
+				try (FileInputStream fis = new FileInputStream(file)) {
+					workbook = new XSSFWorkbook(fis);
 				}
+			} else {
+				logger.info("🆕 Excel file not found. Creating new workbook.");
+				workbook = new XSSFWorkbook();
+			}
+			PipelineMetrics.record(PipelineMetrics.WORKBOOK_OPEN, openStart);
 
-				sheet = (workbook.getNumberOfSheets() == 0)
-						? workbook.createSheet("Sheet1")
-						: workbook.getSheetAt(0);
-
-				CellStyle wrapStyle = workbook.createCellStyle();
-				wrapStyle.setWrapText(true);
-
-				// Write headers if not present
-				Row headerRow = sheet.getRow(0);
-				if (headerRow == null) {
-					headerRow = sheet.createRow(0);
-					int col = 0;
-					for (String h : headers) {
-						Cell cell = headerRow.createCell(col++);
-						cell.setCellValue(h);
-						cell.setCellStyle(wrapStyle);
+			sheet = (workbook.getNumberOfSheets() == 0)
+					? workbook.createSheet("Sheet1")
+					: workbook.getSheetAt(0);
+
+			CellStyle wrapStyle = workbook.createCellStyle();
+			wrapStyle.setWrapText(true);
+
+			// Columns already in the header row keep their place; ones new in this batch are added at the end
+			long writeStart = System.nanoTime();
+			Row headerRow = sheet.getRow(0);
+			if (headerRow == null) {
+				headerRow = sheet.createRow(0);
+			}
+			List<String> names = headerNames(headerRow);
+			int existing = names.size();
+			List<String> columns = mergeColumns(names, headers);
+
+			ColumnWidthEstimator estimator = (widthMode == ColumnWidthEstimator.Mode.ESTIMATE)
+					? ColumnWidthEstimator.load(filePath, columns.size())
+					: null;
+
+			if (existing < columns.size()) {
+				for (int col = existing; col < columns.size(); col++) {
+					Cell cell = headerRow.createCell(col);
+					cell.setCellValue(columns.get(col));
+					cell.setCellStyle(wrapStyle);
+					if (estimator != null) {
+						estimator.observe(col, columns.get(col));
 					}
+				}
+				if (widthMode == ColumnWidthEstimator.Mode.HEADER_ONCE) {
+					setHeaderWidths(sheet, new LinkedHashSet<>(columns));
+				}
+				if (existing == 0) {
 					logger.info("✅ Header row created");
+				} else {
+					logger.info("✅ Header row extended to {} columns", columns.size());
 				}
+			}
 
-				// Write data rows
-				int rowNum = sheet.getLastRowNum() + 1;
-				for (Map<String, String> data : rows) {
-					Row row = sheet.createRow(rowNum++);
-					int col = 0;
-					for (String key : headers) {
-						Cell cell = row.createCell(col++);
-						String value = data.getOrDefault(key, "");
-						if (value.startsWith("=") || value.startsWith("-")) {
-							value = "'" + value;
-						}
-						cell.setCellValue(value);
-						cell.setCellStyle(wrapStyle);
+			// Write data rows
+			int rowNum = sheet.getLastRowNum() + 1;
+			HeaderLookup lookup = new HeaderLookup(columns);
+			for (Map<String, String> data : rows) {
+				Row row = sheet.createRow(rowNum++);
+				for (int col = 0; col < lookup.size(); col++) {
+					String value = sanitize(lookup.value(data, col));
+					if (estimator != null) {
+						estimator.observe(col, value);
 					}
+					Cell cell = row.createCell(col);
+					cell.setCellValue(value);
+					cell.setCellStyle(wrapStyle);
 				}
+			}
 
-				// Auto-size columns
-				int totalCols = headers.size();
+			PipelineMetrics.record(PipelineMetrics.ROW_WRITE, writeStart);
+
+			// Column widths: only the new values are looked at; new rows keep the
+			// default (auto-fit) height, so existing rows are never touched
+			long widthStart = System.nanoTime();
+			if (estimator != null) {
+				if (estimator.isChanged()) {
+					estimator.apply(sheet);
+				}
+			} else if (widthMode == ColumnWidthEstimator.Mode.AUTOSIZE) {
+				int totalCols = columns.size();
 				for (int i = 0; i < totalCols; i++) {
 					sheet.autoSizeColumn(i);
 				}
+			}
+			PipelineMetrics.record(PipelineMetrics.AUTOSIZE, widthStart);
 
-				// Auto-adjust row height
-				for (int r = 1; r <= sheet.getLastRowNum(); r++) {
-					Row row = sheet.getRow(r);
-					if (row != null) {
-						row.setHeight((short) -1);
-					}
-				}
+			if (journalSeq >= 0) {
+				setJournalSeq(workbook, journalSeq);
+			}
 
-				try (FileOutputStream fos = new FileOutputStream(filePath)) {
+			// Written beside the target and swapped in, so a crash or full disk never leaves a truncated sheet
+			Path target = file.toPath().toAbsolutePath();
+			Path tmp = Files.createTempFile(target.getParent(), "sheet-", ".tmp");
+			try {
+				long flushStart = System.nanoTime();
+				try (FileOutputStream fos = new FileOutputStream(tmp.toFile())) {
 					workbook.write(fos);
-					logger.info("✅ Excel write completed: {}", filePath);
-				} catch (IOException e) {
-					logger.error("❌ Error writing Excel file: {}", e.getMessage(), e);
-					throw e;
-				} finally {
-					workbook.close();
+					fos.getFD().sync();
 				}
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				PipelineMetrics.record(PipelineMetrics.WORKBOOK_FLUSH, flushStart);
+				if (estimator != null) {
+					estimator.store();
+				}
+				logger.info("✅ Excel write completed: {}", filePath);
+			} catch (IOException e) {
+				Files.deleteIfExists(tmp);
+				logger.error("❌ Error writing Excel file: {}", e.getMessage(), e);
+				throw e;
+			} finally {
+				workbook.close();
 			}
 		}
 
+	    // Column order after a write of headers to a sheet that already has existing: new names go at the end
+	    static List<String> mergeColumns(List<String> existing, Collection<String> headers) {
+	        List<String> columns = new ArrayList<>(existing);
+	        for (String header : headers) {
+	            if (!columns.contains(header)) {
+	                columns.add(header);
+	            }
+	        }
+	        return columns;
+	    }
+
+	    private static List<String> headerNames(Row headerRow) {
+	        List<String> names = new ArrayList<>();
+	        for (int col = 0; col < headerRow.getLastCellNum(); col++) {
+	            Cell cell = headerRow.getCell(col);
+	            names.add(cell == null ? "" : cell.getStringCellValue());
+	        }
+	        return names;
+	    }
+
+	    // Last journal sequence number contained in the workbook, or -1
+	    public static long journalSeq(String filePath) throws IOException {
+	        File file = new File(filePath);
+	        if (!file.exists()) {
+	            return -1;
+	        }
+	        try (FileInputStream fis = new FileInputStream(file); XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
+	            CTProperty property = workbook.getProperties().getCustomProperties().getProperty(JOURNAL_SEQ_PROPERTY);
+	            return property != null && property.isSetLpwstr() ? Long.parseLong(property.getLpwstr()) : -1;
+	        }
+	    }
+
+	    private static void setJournalSeq(XSSFWorkbook workbook, long journalSeq) {
+	        POIXMLProperties.CustomProperties custom = workbook.getProperties().getCustomProperties();
+	        CTProperty property = custom.getProperty(JOURNAL_SEQ_PROPERTY);
+	        if (property != null) {
+	            property.setLpwstr(String.valueOf(journalSeq));
+	        } else {
+	            custom.addProperty(JOURNAL_SEQ_PROPERTY, String.valueOf(journalSeq));
+	        }
+	    }
+
+	    static void setHeaderWidths(Sheet sheet, Set<String> headers) {
+	        int col = 0;
+	        for (String h : headers) {
+	            sheet.setColumnWidth(col++, ColumnWidthEstimator.widthFor(
+	                    Math.max(h.length(), ColumnWidthEstimator.MIN_CHARS)));
+	        }
+	    }
+
+	    // Guard against formula injection: values starting with = or - are written as text
+	    static String sanitize(String value) {
+	        if (value.startsWith("=") || value.startsWith("-")) {
+	            return "'" + value;
+	        }
+	        return value;
+	    }
+
+	    // The value sanitize() was given, when reading a written file back
+	    static String unsanitize(String value) {
+	        if (value.startsWith("'=") || value.startsWith("'-")) {
+	            return value.substring(1);
+	        }
+	        return value;
+	    }
+
 }
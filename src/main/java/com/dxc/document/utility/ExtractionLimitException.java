@@ -0,0 +1,13 @@
+package com.dxc.document.utility;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a document exceeds its {@link ExtractionLimits}; only that file fails, not the batch.
+ */
+public class ExtractionLimitException extends IOException {
+
+    public ExtractionLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.dxc.document.utility;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+
+/**
+ * Per-document resource budget for extraction. A document that exceeds any limit is rejected with an
+ * {@link ExtractionLimitException}. Zero or negative scratch, page and text limits mean unlimited.
+ *
+ * @param maxMainMemoryBytes heap PDFBox may buffer before spilling to scratch files (negative: heap only)
+ * @param maxScratchBytes    total heap plus scratch-file storage for one document
+ * @param maxPages           page count above which the document is not stripped at all
+ * @param maxTextChars       extracted text length at which stripping is aborted
+ */
+public record ExtractionLimits(long maxMainMemoryBytes, long maxScratchBytes, int maxPages, int maxTextChars) {
+
+    public static final ExtractionLimits UNLIMITED = new ExtractionLimits(-1, -1, 0, 0);
+
+    // A fresh setting per document: PDFBox creates one scratch file per load from it
+    public MemoryUsageSetting memoryUsageSetting() {
+        if (maxMainMemoryBytes < 0 && maxScratchBytes <= 0) {
+            return MemoryUsageSetting.setupMainMemoryOnly();
+        }
+        return MemoryUsageSetting.setupMixed(Math.max(maxMainMemoryBytes, 0), maxScratchBytes > 0 ? maxScratchBytes : -1);
+    }
+
+    public void checkPages(int pages) throws ExtractionLimitException {
+        if (maxPages > 0 && pages > maxPages) {
+            throw new ExtractionLimitException("Document has " + pages + " pages, limit is " + maxPages);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.dxc.document.utility;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decisions made while extracting one document (pages read, skipped instruction lines, missing labels
+ * and sections). Collected during extraction and logged once per document instead of line by line;
+ * only the first few skipped lines are kept as samples.
+ */
+public final class ExtractionReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionReport.class);
+
+    private static final int MAX_SAMPLES = 5;
+
+    private final String document;
+    private String template;
+    private int pagesRead;
+    private int pagesTotal;
+    private int skippedInstructions;
+    private int skippedShortOrJunk;
+    private final List<String> instructionSamples = new ArrayList<>();
+    private final List<String> missingLabels = new ArrayList<>();
+    private final List<String> missingSections = new ArrayList<>();
+
+    public ExtractionReport(String document) {
+        this.document = document;
+    }
+
+    public String document() {
+        return document;
+    }
+
+    void template(String name) {
+        this.template = name;
+    }
+
+    void pages(int read, int total) {
+        this.pagesRead = read;
+        this.pagesTotal = total;
+    }
+
+    void instructionSkipped(String line) {
+        skippedInstructions++;
+        if (instructionSamples.size() < MAX_SAMPLES) {
+            instructionSamples.add(line);
+        }
+    }
+
+    // Same as above for text[start, end); the line is only copied when it is kept as a sample
+    void instructionSkipped(CharSequence text, int start, int end) {
+        skippedInstructions++;
+        if (instructionSamples.size() < MAX_SAMPLES) {
+            instructionSamples.add(text.subSequence(start, end).toString());
+        }
+    }
+
+    void lineSkipped() {
+        skippedShortOrJunk++;
+    }
+
+    void labelMissing(String label) {
+        missingLabels.add(label);
+    }
+
+    void sectionMissing(String startHeader, String endHeader) {
+        missingSections.add(endHeader == null || endHeader.isEmpty() ? startHeader : startHeader + " -> " + endHeader);
+    }
+
+    public boolean hasMissingFields() {
+        return !missingLabels.isEmpty() || !missingSections.isEmpty();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("file", document);
+        if (template != null) {
+            report.put("template", template);
+        }
+        if (pagesTotal > 0) {
+            report.put("pagesRead", pagesRead);
+            report.put("pagesTotal", pagesTotal);
+        }
+        report.put("skippedInstructions", skippedInstructions);
+        report.put("skippedLines", skippedShortOrJunk);
+        if (!instructionSamples.isEmpty()) {
+            report.put("instructionSamples", List.copyOf(instructionSamples));
+        }
+        report.put("missingLabels", List.copyOf(missingLabels));
+        report.put("missingSections", List.copyOf(missingSections));
+        return report;
+    }
+
+    // One line per document: WARN when a label or section was not found, DEBUG otherwise
+    public void emit() {
+        if (hasMissingFields()) {
+            logger.warn("⚠️ Extraction report {}", this);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("🧾 Extraction report {}", this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "document=" + document
+                + " template=" + template
+                + " pages=" + pagesRead + "/" + pagesTotal
+                + " skippedInstructions=" + skippedInstructions
+                + " skippedLines=" + skippedShortOrJunk
+                + " missingLabels=" + missingLabels
+                + " missingSections=" + missingSections
+                + " instructionSamples=" + instructionSamples;
+    }
+}
@@ -0,0 +1,270 @@
+package com.dxc.document.utility;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A {@link TemplateDefinition} compiled for extraction: one {@link KeywordAutomaton} over every label
+ * and section header, one over the instruction phrases and a {@link JunkFilter} per filter list, so the
+ * cost per document does not grow with the number of fields and phrases a template declares.
+ * Immutable and shared by all threads.
+ */
+public final class ExtractionTemplate {
+
+    enum Kind { EMPTY, LABEL, SECTION, SUBSECTION }
+
+    // What the section filters make of a line: junk wins over instruction
+    enum LineFilter { KEEP, JUNK, INSTRUCTION }
+
+    record Column(String name, Kind kind, String label, String start, String end, int maxChars, int source,
+                  String header, Pattern headerPattern, Timer timer) {
+    }
+
+    private final String name;
+    private final int priority;
+    private final boolean fallback;
+    private final String version;
+    private final String source;
+    // Upper-cased, matched against the upper-cased first page
+    private final List<String> fingerprint;
+    private final List<Column> columns;
+    private final RowSchema schema;
+    private final SectionTokenizer tokenizer;
+    private final TextCleaner cleaner;
+    private final JunkFilter sectionJunk;
+    private final KeywordAutomaton instructions;
+
+    private ExtractionTemplate(TemplateDefinition definition, String version, String source, List<Column> columns,
+                               Set<String> keywords) {
+        this.name = definition.name();
+        this.priority = definition.priority();
+        this.fallback = definition.fallback();
+        this.version = version;
+        this.source = source;
+        this.fingerprint = list(definition.fingerprint()).stream().map(phrase -> phrase.toUpperCase(Locale.ROOT)).toList();
+        this.columns = List.copyOf(columns);
+        this.schema = RowSchema.withInterned(columns.stream().map(Column::name).toList(),
+                list(definition.columns()).stream().filter(TemplateDefinition.Column::intern)
+                        .map(TemplateDefinition.Column::name).collect(Collectors.toSet()));
+        this.tokenizer = new SectionTokenizer(keywords.toArray(String[]::new));
+
+        TemplateDefinition.Cleaning cleaning = definition.cleaning();
+        this.cleaner = cleaning == null ? new TextCleaner(null, false)
+                : new TextCleaner(JunkFilter.of(name, cleaning.junkPhrases(), cleaning.junkPatterns()),
+                        cleaning.stampLines());
+
+        TemplateDefinition.SectionRules rules = definition.sections();
+        this.sectionJunk = rules == null ? null : JunkFilter.of(name, rules.junkPhrases(), rules.junkPatterns());
+        this.instructions = rules == null ? null : automaton(name, rules.instructions());
+    }
+
+    /**
+     * Validates {@code definition} and compiles it.
+     *
+     * @throws IllegalArgumentException naming the template and the problem
+     */
+    public static ExtractionTemplate compile(TemplateDefinition definition, String version, String source) {
+        String name = definition.name();
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Template in " + source + " has no name");
+        }
+        if (list(definition.columns()).isEmpty()) {
+            throw new IllegalArgumentException("Template " + name + " declares no columns");
+        }
+
+        List<Column> columns = new ArrayList<>();
+        Map<String, Integer> columnIndex = new HashMap<>();
+        Set<String> keywords = new LinkedHashSet<>();
+        for (TemplateDefinition.Column column : definition.columns()) {
+            String columnName = column.name();
+            if (columnName == null || columnName.isEmpty() || columnIndex.containsKey(columnName)) {
+                throw new IllegalArgumentException("Template " + name + ": missing or duplicate column name " + columnName);
+            }
+            int kinds = (column.label() != null ? 1 : 0) + (column.section() != null ? 1 : 0)
+                    + (column.subsection() != null ? 1 : 0);
+            if (kinds > 1) {
+                throw new IllegalArgumentException("Template " + name + ": column " + columnName
+                        + " must have only one of label, section or subsection");
+            }
+
+            if (column.label() != null) {
+                String label = keyword(name, column.label());
+                keywords.add(label);
+                columns.add(new Column(columnName, Kind.LABEL, label, null, null, 0, -1, null, null, null));
+            } else if (column.section() != null) {
+                String start = keyword(name, column.section().start());
+                String end = column.section().end() == null || column.section().end().isEmpty()
+                        ? "" : keyword(name, column.section().end());
+                int maxChars = column.section().maxChars();
+                if (maxChars < 0) {
+                    throw new IllegalArgumentException("Template " + name + ": section " + columnName
+                            + " has a negative maxChars");
+                }
+                keywords.add(start);
+                if (!end.isEmpty()) {
+                    keywords.add(end);
+                }
+                columns.add(new Column(columnName, Kind.SECTION, null, start, end, maxChars, -1, null, null,
+                        PipelineMetrics.section(start)));
+            } else if (column.subsection() != null) {
+                Integer of = columnIndex.get(column.subsection().of());
+                String header = column.subsection().header();
+                if (of == null || columns.get(of).kind() != Kind.SECTION) {
+                    throw new IllegalArgumentException("Template " + name + ": subsection " + columnName
+                            + " must refer to an earlier section column, not " + column.subsection().of());
+                }
+                if (header == null || header.isBlank()) {
+                    throw new IllegalArgumentException("Template " + name + ": subsection " + columnName + " has no header");
+                }
+                columns.add(new Column(columnName, Kind.SUBSECTION, null, null, null, 0, of,
+                        header.toUpperCase(), Pattern.compile("(?i)" + Pattern.quote(header)), null));
+            } else {
+                columns.add(new Column(columnName, Kind.EMPTY, null, null, null, 0, -1, null, null, null));
+            }
+            columnIndex.put(columnName, columns.size() - 1);
+        }
+
+        return new ExtractionTemplate(definition, version, source, columns, keywords);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int priority() {
+        return priority;
+    }
+
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public List<String> fingerprint() {
+        return fingerprint;
+    }
+
+    public List<String> columnNames() {
+        return schema.columns();
+    }
+
+    // Every row extracted with this template has this schema
+    public RowSchema schema() {
+        return schema;
+    }
+
+    // Columns filled from section bodies, i.e. free text
+    public List<String> sectionColumnNames() {
+        return columns.stream().filter(c -> c.kind() == Kind.SECTION || c.kind() == Kind.SUBSECTION)
+                .map(Column::name).toList();
+    }
+
+    // True when every fingerprint phrase occurs in the (upper-cased) first page; an empty fingerprint never matches
+    boolean matches(String upperCasedFirstPage) {
+        if (fingerprint.isEmpty()) {
+            return false;
+        }
+        for (String phrase : fingerprint) {
+            if (!upperCasedFirstPage.contains(phrase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    List<Column> columns() {
+        return columns;
+    }
+
+    SectionTokenizer tokenizer() {
+        return tokenizer;
+    }
+
+    TextCleaner cleaner() {
+        return cleaner;
+    }
+
+    /**
+     * Classifies text[start, end), a trimmed section line. Same results as the former
+     * {@code (?i)^.*(junk).*} (matches) and {@code (?i)^\s*(instruction)} (find) regexes: junk only counts
+     * on a line without line terminators, an instruction must start the line after leading whitespace.
+     */
+    LineFilter filter(CharSequence text, int start, int end) {
+        if (sectionJunk != null && !containsLineTerminator(text, start, end) && sectionJunk.matches(text, start, end)) {
+            return LineFilter.JUNK;
+        }
+        return instructions != null && startsWithInstruction(text, start, end) ? LineFilter.INSTRUCTION : LineFilter.KEEP;
+    }
+
+    // Only the first few characters after the leading whitespace can start a match
+    private boolean startsWithInstruction(CharSequence text, int start, int end) {
+        int lead = start;
+        while (lead < end && isRegexWhitespace(text.charAt(lead))) {
+            lead++;
+        }
+        int limit = Math.min(end, lead + instructions.maxKeywordLength());
+        int state = KeywordAutomaton.START;
+        for (int i = start; i < limit; i++) {
+            state = instructions.next(state, text.charAt(i));
+            for (int k : instructions.hits(state)) {
+                if (i - instructions.length(k) + 1 <= lead) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String keyword(String template, String keyword) {
+        if (keyword == null || keyword.isEmpty()) {
+            throw new IllegalArgumentException("Template " + template + ": empty label or section header");
+        }
+        return keyword;
+    }
+
+    private static KeywordAutomaton automaton(String template, List<String> phrases) {
+        List<String> keywords = list(phrases);
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Template " + template + ": empty phrase");
+            }
+        }
+        return keywords.isEmpty() ? null : new KeywordAutomaton(keywords.toArray(String[]::new));
+    }
+
+    // \s in java.util.regex without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    // Characters '.' does not match
+    private static boolean containsLineTerminator(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> List<T> list(List<T> values) {
+        return values == null ? List.of() : values;
+    }
+}
@@ -0,0 +1,165 @@
+package com.dxc.document.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * An immutable set of compiled templates. A document is matched against the templates' first-page
+ * fingerprints; the highest priority match wins, otherwise the fallback template is used. Swapped as a
+ * whole on reload, so a document is always extracted with one consistent set of rules.
+ */
+public final class ExtractionTemplates {
+
+    public static final String BUILT_IN_RESOURCE = "extraction-templates/job-description.yaml";
+
+    // YAML is a superset of JSON, so one mapper reads both
+    private static final ObjectMapper MAPPER = new ObjectMapper(new YAMLFactory());
+
+    private final List<ExtractionTemplate> templates;
+    private final ExtractionTemplate fallback;
+    private final String version;
+
+    private ExtractionTemplates(List<ExtractionTemplate> templates, String version) {
+        this.templates = templates.stream()
+                .sorted(Comparator.comparingInt(ExtractionTemplate::priority).reversed())
+                .toList();
+        this.fallback = templates.stream().filter(ExtractionTemplate::isFallback).findFirst().orElse(templates.get(0));
+        this.version = version;
+    }
+
+    // The job description layout shipped with the application, compiled once
+    public static ExtractionTemplates builtIn() {
+        return BuiltIn.TEMPLATES;
+    }
+
+    /** Reads one template definition; {@code source} (a file or resource name) only appears in messages. */
+    public static TemplateDefinition parse(String source, byte[] content) {
+        try {
+            return MAPPER.readValue(content, TemplateDefinition.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid template " + source + ": " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compiles a set of sources (name and content, in load order).
+     *
+     * @throws IllegalArgumentException when a template is invalid, two share a name or more than one is the fallback
+     */
+    public static ExtractionTemplates compile(List<Source> sources) {
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("No extraction templates");
+        }
+        MessageDigest setDigest = sha256();
+        List<ExtractionTemplate> templates = new ArrayList<>(sources.size());
+        Set<String> names = new HashSet<>();
+        int fallbacks = 0;
+        for (Source source : sources) {
+            TemplateDefinition definition = parse(source.name(), source.content());
+            String version = HexFormat.of().formatHex(sha256().digest(source.content())).substring(0, 12);
+            ExtractionTemplate template = ExtractionTemplate.compile(definition, version, source.name());
+            if (!names.add(template.name())) {
+                throw new IllegalArgumentException("Duplicate template name " + template.name() + " in " + source.name());
+            }
+            if (template.isFallback() && ++fallbacks > 1) {
+                throw new IllegalArgumentException("More than one fallback template (" + template.name() + ")");
+            }
+            templates.add(template);
+            setDigest.update(template.name().getBytes(StandardCharsets.UTF_8));
+            setDigest.update(source.content());
+        }
+        String version = PdfExtractor.RULES_VERSION + "-" + HexFormat.of().formatHex(setDigest.digest()).substring(0, 12);
+        return new ExtractionTemplates(templates, version);
+    }
+
+    /** Template for a document whose first page is {@code firstPage}. */
+    public ExtractionTemplate select(CharSequence firstPage) {
+        if (templates.size() == 1) {
+            return templates.get(0);
+        }
+        // Fingerprints are upper-cased the same way when the template is compiled
+        String upper = firstPage.toString().toUpperCase(Locale.ROOT);
+        for (ExtractionTemplate template : templates) {
+            if (template.matches(upper)) {
+                return template;
+            }
+        }
+        return fallback;
+    }
+
+    public ExtractionTemplate get(String name) {
+        for (ExtractionTemplate template : templates) {
+            if (template.name().equals(name)) {
+                return template;
+            }
+        }
+        return null;
+    }
+
+    // Highest priority first
+    public List<ExtractionTemplate> templates() {
+        return templates;
+    }
+
+    /** Every column some template of the set writes, highest priority template first. */
+    public Set<String> columns() {
+        Set<String> columns = new LinkedHashSet<>();
+        for (ExtractionTemplate template : templates) {
+            columns.addAll(template.schema().headers());
+        }
+        return columns;
+    }
+
+    public ExtractionTemplate fallback() {
+        return fallback;
+    }
+
+    // Identifies the rules of the whole set; extraction results cached under another version are not reused
+    public String version() {
+        return version;
+    }
+
+    public record Source(String name, byte[] content) {
+    }
+
+    public static Source builtInSource() {
+        try (InputStream in = ExtractionTemplates.class.getClassLoader().getResourceAsStream(BUILT_IN_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing built-in template " + BUILT_IN_RESOURCE);
+            }
+            return new Source("classpath:" + BUILT_IN_RESOURCE, in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class BuiltIn {
+        static final ExtractionTemplates TEMPLATES = compile(List.of(builtInSource()));
+    }
+}
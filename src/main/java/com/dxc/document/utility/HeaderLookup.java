@@ -0,0 +1,43 @@
+package com.dxc.document.utility;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The headers of one write, read from each row by position. For a {@link CompactRow} the header's
+ * ordinal in the row's schema is worked out once per schema, so a batch of rows with one layout costs
+ * an array read per cell instead of a hash lookup. Any other map is read by name. One instance per
+ * write: it keeps the last schema seen and is not thread-safe.
+ */
+public final class HeaderLookup {
+
+    private final String[] headers;
+    private RowSchema schema;
+    private int[] ordinals;
+
+    public HeaderLookup(Collection<String> headers) {
+        this.headers = headers.toArray(String[]::new);
+    }
+
+    public int size() {
+        return headers.length;
+    }
+
+    public String header(int column) {
+        return headers[column];
+    }
+
+    /** Value of header {@code column} in {@code row}, "" when the row does not have it. */
+    public String value(Map<String, String> row, int column) {
+        if (row instanceof CompactRow compact) {
+            if (compact.schema() != schema) {
+                schema = compact.schema();
+                ordinals = schema.ordinals(headers);
+            }
+            int ordinal = ordinals[column];
+            return ordinal < 0 ? "" : compact.value(ordinal);
+        }
+        String value = row.get(headers[column]);
+        return value == null ? "" : value;
+    }
+}
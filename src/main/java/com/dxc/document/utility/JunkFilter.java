@@ -0,0 +1,106 @@
+package com.dxc.document.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Tells whether a line contains junk: a literal phrase or a match of a regex, all ASCII case-insensitive.
+ * Phrases and the literal text each regex must start with are found in one {@link KeywordAutomaton}
+ * pass; the regex alternation then only runs on the rare lines where such a prefix occurred.
+ */
+final class JunkFilter {
+
+    private final KeywordAutomaton keywords;
+    // Keywords from firstPrefix on are regex prefixes, not junk by themselves
+    private final int firstPrefix;
+    private final Pattern patterns;
+    private final boolean gated;
+
+    private JunkFilter(KeywordAutomaton keywords, int firstPrefix, Pattern patterns, boolean gated) {
+        this.keywords = keywords;
+        this.firstPrefix = firstPrefix;
+        this.patterns = patterns;
+        this.gated = gated;
+    }
+
+    /**
+     * Filter for the given phrases and regexes, or {@code null} when both are empty.
+     *
+     * @throws IllegalArgumentException naming the template when a phrase is empty or a regex is invalid
+     */
+    static JunkFilter of(String template, List<String> phrases, List<String> regexes) {
+        phrases = phrases == null ? List.of() : phrases;
+        regexes = regexes == null ? List.of() : regexes;
+        if (phrases.isEmpty() && regexes.isEmpty()) {
+            return null;
+        }
+        List<String> all = new ArrayList<>();
+        for (String phrase : phrases) {
+            if (phrase == null || phrase.isEmpty()) {
+                throw new IllegalArgumentException("Template " + template + ": empty phrase");
+            }
+            all.add(phrase);
+        }
+        int firstPrefix = all.size();
+        boolean gated = true;
+        for (String regex : regexes) {
+            compile(template, regex);
+            String prefix = literalPrefix(regex);
+            if (prefix == null) {
+                gated = false;
+            } else {
+                all.add(prefix);
+            }
+        }
+        Pattern patterns = regexes.isEmpty() ? null : compile(template, "(?i)(?:" + String.join("|", regexes) + ")");
+        return new JunkFilter(all.isEmpty() ? null : new KeywordAutomaton(all.toArray(String[]::new)), firstPrefix,
+                patterns, gated);
+    }
+
+    boolean matches(CharSequence text, int start, int end) {
+        boolean prefixSeen = false;
+        if (keywords != null) {
+            int state = KeywordAutomaton.START;
+            for (int i = start; i < end; i++) {
+                state = keywords.next(state, text.charAt(i));
+                for (int k : keywords.hits(state)) {
+                    if (k < firstPrefix) {
+                        return true;
+                    }
+                    prefixSeen = true;
+                }
+            }
+        }
+        return patterns != null && (prefixSeen || !gated) && patterns.matcher(text).region(start, end).find();
+    }
+
+    /**
+     * Literal text every match of {@code regex} starts with, or {@code null} when that cannot be told
+     * without parsing it (alternation, a leading metacharacter or group, an optional first character).
+     */
+    static String literalPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return null;
+        }
+        int length = 0;
+        while (length < regex.length() && "\\^$.|?*+()[]{}".indexOf(regex.charAt(length)) < 0) {
+            length++;
+        }
+        // A ?, * or {n,m} quantifier makes the last literal character optional
+        if (length < regex.length() && "?*{".indexOf(regex.charAt(length)) >= 0) {
+            length--;
+        }
+        return length <= 0 ? null : regex.substring(0, length);
+    }
+
+    private static Pattern compile(String template, String regex) {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Template " + template + ": invalid pattern " + regex + ": "
+                    + e.getDescription(), e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.dxc.document.utility;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over a fixed set of literal keywords: one linear pass over the text reports
+ * every occurrence of every keyword, overlapping ones included, however many keywords there are.
+ * Matching follows {@code (?i)} on a quoted literal: ASCII letters fold, every other character must
+ * match exactly. Immutable once built and safe to share; the pass state is a plain {@code int}.
+ */
+final class KeywordAutomaton {
+
+    static final int START = 0;
+
+    private static final int[] NO_HITS = new int[0];
+
+    private final String[] keywords;
+    private final int maxKeywordLength;
+    // Characters that occur in some keyword get a class > 0; everything else is class 0 and leads back to START
+    private final int[] asciiClass = new int[128];
+    // Non-ASCII keyword characters, sorted, and their classes (binary search keeps the scan allocation-free)
+    private final char[] otherChars;
+    private final int[] otherClasses;
+    private final int classes;
+    // Complete transition function: next state = delta[state * classes + class]
+    private final int[] delta;
+    // Keywords ending in each state, including those reached through failure links
+    private final int[][] hits;
+
+    KeywordAutomaton(String... keywords) {
+        this.keywords = keywords.clone();
+        Map<Character, Integer> others = new HashMap<>();
+        int nextClass = 1;
+        int maxLength = 0;
+        for (String keyword : keywords) {
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            maxLength = Math.max(maxLength, keyword.length());
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = fold(keyword.charAt(i));
+                if (c < 128) {
+                    if (asciiClass[c] == 0) {
+                        asciiClass[c] = nextClass++;
+                    }
+                } else if (!others.containsKey(c)) {
+                    others.put(c, nextClass++);
+                }
+            }
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            asciiClass[c] = asciiClass[c - 32];
+        }
+        this.otherChars = new char[others.size()];
+        this.otherClasses = new int[others.size()];
+        int n = 0;
+        for (char c : others.keySet().stream().sorted().toList()) {
+            otherChars[n] = c;
+            otherClasses[n++] = others.get(c);
+        }
+        this.classes = nextClass;
+        this.maxKeywordLength = maxLength;
+
+        // Trie: goto edges only, 0 = no edge (no edge ever leads back to START)
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new int[classes]);
+        ends.add(new ArrayList<>());
+        for (int k = 0; k < keywords.length; k++) {
+            int state = START;
+            for (int i = 0; i < keywords[k].length(); i++) {
+                int c = classOf(keywords[k].charAt(i));
+                if (trie.get(state)[c] == 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(new int[classes]);
+                    ends.add(new ArrayList<>());
+                }
+                state = trie.get(state)[c];
+            }
+            ends.get(state).add(k);
+        }
+
+        // Breadth-first: a state's failure target is shallower, so its row is complete before it is copied
+        int states = trie.size();
+        this.delta = new int[states * classes];
+        this.hits = new int[states][];
+        int[] fail = new int[states];
+        hits[START] = NO_HITS;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 1; c < classes; c++) {
+            int child = trie.get(START)[c];
+            delta[c] = child;
+            if (child != 0) {
+                fail[child] = START;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            hits[state] = merge(ends.get(state), hits[fail[state]]);
+            for (int c = 1; c < classes; c++) {
+                int child = trie.get(state)[c];
+                if (child != 0) {
+                    fail[child] = delta[fail[state] * classes + c];
+                    delta[state * classes + c] = child;
+                    queue.add(child);
+                } else {
+                    delta[state * classes + c] = delta[fail[state] * classes + c];
+                }
+            }
+        }
+    }
+
+    int size() {
+        return keywords.length;
+    }
+
+    String keyword(int k) {
+        return keywords[k];
+    }
+
+    int length(int k) {
+        return keywords[k].length();
+    }
+
+    int maxKeywordLength() {
+        return maxKeywordLength;
+    }
+
+    int next(int state, char c) {
+        return delta[state * classes + classOf(c)];
+    }
+
+    // Indices of the keywords that end at the character that led to this state
+    int[] hits(int state) {
+        return hits[state];
+    }
+
+    // True when some keyword occurs entirely within text[from, to)
+    boolean containsAny(CharSequence text, int from, int to) {
+        int state = START;
+        for (int i = from; i < to; i++) {
+            state = next(state, text.charAt(i));
+            if (hits[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        int i = Arrays.binarySearch(otherChars, c);
+        return i < 0 ? 0 : otherClasses[i];
+    }
+
+    private static char fold(char c) {
+        return (c >= 'a' && c <= 'z') ? (char) (c - 32) : c;
+    }
+
+    private static int[] merge(List<Integer> own, int[] inherited) {
+        if (own.isEmpty()) {
+            return inherited;
+        }
+        int[] merged = Arrays.copyOf(inherited, inherited.length + own.size());
+        for (int i = 0; i < own.size(); i++) {
+            merged[inherited.length + i] = own.get(i);
+        }
+        return merged;
+    }
+}
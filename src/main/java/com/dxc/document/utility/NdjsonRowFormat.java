@@ -0,0 +1,91 @@
+package com.dxc.document.utility;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Newline-delimited JSON: one object per row, keys in header order. Line breaks inside values are
+ * escaped, so every record is exactly one line and needs no header.
+ */
+final class NdjsonRowFormat implements TextRowFormat {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    @Override
+    public boolean hasHeader() {
+        return false;
+    }
+
+    @Override
+    public void appendHeader(StringBuilder out, Collection<String> headers) {
+    }
+
+    @Override
+    public void appendRow(StringBuilder out, HeaderLookup headers, Map<String, String> row) {
+        out.append('{');
+        for (int i = 0; i < headers.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append('"');
+            ENCODER.quoteAsString(headers.header(i), out);
+            out.append("\":\"");
+            ENCODER.quoteAsString(headers.value(row, i), out);
+            out.append('"');
+        }
+        out.append("}\n");
+    }
+
+    @Override
+    public List<String> readHeader(InputStream in) {
+        return null;
+    }
+
+    @Override
+    public void readRows(InputStream in, Consumer<Map<String, String>> rows) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            List<String> keys = new ArrayList<>();
+            List<String> values = new ArrayList<>();
+            LazyMapper.MAPPER.readTree(line).properties().forEach(field -> {
+                keys.add(field.getKey());
+                values.add(field.getValue().asText());
+            });
+            rows.accept(CompactRow.of(RowSchema.of(keys), values.toArray(String[]::new)));
+        }
+    }
+
+    // Only reading back needs a mapper; building one costs more than the rest of startup for the batch CLI
+    private static final class LazyMapper {
+        static final ObjectMapper MAPPER = new ObjectMapper();
+    }
+
+    @Override
+    public long completeLength(InputStream in) throws IOException {
+        InputStream bytes = new BufferedInputStream(in);
+        long position = 0;
+        long complete = 0;
+        for (int b = bytes.read(); b >= 0; b = bytes.read()) {
+            position++;
+            if (b == '\n') {
+                complete = position;
+            }
+        }
+        return complete;
+    }
+}
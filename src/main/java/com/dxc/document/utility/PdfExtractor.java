@@ -2,11 +2,11 @@ package com.dxc.document.utility;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.io.InputStream;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -19,239 +19,224 @@ public class PdfExtractor {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfExtractor.class);
 
+    // Bump whenever the extraction code changes how template rules are applied: cached results are keyed by it
+    public static final String RULES_VERSION = "1";
+
+    // ✅ Precompiled patterns
+    private static final Pattern LEADING_PARENTHESES = Pattern.compile("^\\([^\\)]+\\)\\s*");
+    private static final Pattern LINE_BREAK = Pattern.compile("\\r?\\n");
+    private static final Pattern SECTION_HEADER = Pattern.compile("^[A-Z][A-Z /]{3,}$");
+
     public static Map<String, String> extractFieldsFromPdf(File pdfFile) throws IOException {
+        return extractFieldsFromPdf(pdfFile, ExtractionLimits.UNLIMITED);
+    }
+
+    public static Map<String, String> extractFieldsFromPdf(File pdfFile, ExtractionLimits limits) throws IOException {
+        return extractFieldsFromPdf(pdfFile, limits, new ExtractionReport(pdfFile.getName()));
+    }
+
+    // The report collects what was skipped or missing and is logged once when the document is done
+    public static Map<String, String> extractFieldsFromPdf(File pdfFile, ExtractionLimits limits, ExtractionReport report)
+            throws IOException {
+        return extractFieldsFromPdf(pdfFile, limits, ExtractionTemplates.builtIn(), report);
+    }
+
+    public static Map<String, String> extractFieldsFromPdf(File pdfFile, ExtractionLimits limits,
+                                                           ExtractionTemplates templates, ExtractionReport report)
+            throws IOException {
         logger.info("📄 Extracting fields from PDF: {}", pdfFile.getName());
-        Map<String, String> data = new LinkedHashMap<>();
-
-        try (PDDocument document = PDDocument.load(pdfFile)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String fullText = stripper.getText(document);
-
-            // ✅ Clean junk lines (watermarks, stamps, etc.)
-            fullText = fullText.replaceAll("(?m)^\\s*\\d{4,}[a-z0-9\\\\]+.*$", "");
-            fullText = fullText.replaceAll("(?im)^.*Approved On:.*$", "");
-            fullText = fullText.replaceAll("(?im)^.*Pfizer Confidential.*$", "");
-            fullText = fullText.replaceAll("(?im)^.*JOB DESCRIPTION.*$", "");
-            fullText = fullText.replaceAll("(?im)^.*Page \\d+ of \\d+.*$", "");
-            fullText = fullText.replaceAll("(?m)^\\s*$", "");
-
-            logger.debug("📘 Cleaned text:");
-            logger.debug(fullText);
-
-            // ✅ Extract key-value fields
-            data.put("JOB TITLE", extractLineValue(fullText, "JOB TITLE:"));
-            data.put("REPORTS TO", extractLineValue(fullText, "REPORTS TO:"));
-            data.put("Date Completed/Reviewed","");
-            data.put("DIVISION", extractLineValue(fullText, "DIVISION/BUSINESS LINE:"));
-            data.put("VERSION DATE", extractLineValue(fullText, "VERSION DATE:"));
-            data.put("SUB DIVISION", extractLineValue(fullText, "SUB DIVISION:"));
-            data.put("DEPARTMENT", extractLineValue(fullText, "DEPARTMENT NAME:"));
-            data.put("APPROVAL FROM SITE LEADERSHIP","");
-            data.put("LOCATION", extractLineValue(fullText, "LOCATION(S):"));
-            data.put("Predicted Grade(s)","");
-            data.put("Job Profile","");
-            data.put("GLOBAL JOB STRUCTURE ATTRIBUTES","");
-            data.put("GLOBAL JOB LEVEL","");
-
-            // ✅ Extract sections with subheadings
-            data.put("JOB SUMMARY", extractBulletsOrPlainSection(fullText, "JOB SUMMARY", "JOB RESPONSIBILITIES"));
-            data.put("RESPONSIBILITIES", extractBulletsOrPlainSection(fullText, "JOB RESPONSIBILITIES", "QUALIFICATIONS / SKILLS"));
-            data.put("Additional Job Responsibilities","");
-
-            String qualifications = extractBulletsOrPlainSection(fullText, "QUALIFICATIONS / SKILLS", "ORGANIZATIONAL RELATIONSHIPS");
-            data.put("QUALIFICATIONS", qualifications);
-            data.put("Preferred Qualifications", extractPreferredFromQualifications(qualifications));
-
-//            data.put("QUALIFICATIONS", extractBulletsOrPlainSection(fullText, "QUALIFICATIONS / SKILLS", "ORGANIZATIONAL RELATIONSHIPS"));
-//            data.put("NON-STANDARD WORK", extractBulletsOrPlainSection(fullText,
-//                   "NON-STANDARD WORK SCHEDULE, TRAVEL OR ENVIRONMENT REQUIREMENTS", "ORGANIZATIONAL RELATIONSHIPS"));
-//            data.put("Preferred Qualifications","");
-
-            data.put("PHYSICAL/MENTAL REQUIREMENTS","");
-
-            data.put("NON-STANDARD WORK", extractBulletsOrPlainSection(fullText,
-                    "NON-STANDARD WORK SCHEDULE, TRAVEL OR ENVIRONMENT REQUIREMENTS",
-                    "ORGANIZATIONAL RELATIONSHIPS"));
-
-            data.put("OTHER INFORMATION","");
-
-            data.put("ORGANIZATIONAL RELATIONSHIPS", extractBulletsOrPlainSection(fullText, "ORGANIZATIONAL RELATIONSHIPS", "RESOURCES MANAGED"));
-
-            // ✅ Extract additional RESOURCES MANAGED section
-            data.put("RESOURCES MANAGED", extractBulletsOrPlainSection(fullText, "RESOURCES MANAGED", ""));
-
-            logger.info("✅ PDF extraction complete: {}", pdfFile.getName());
+        long loadStart = System.nanoTime();
+        try (PDDocument document = PDDocument.load(pdfFile, limits.memoryUsageSetting())) {
+            PipelineMetrics.record(PipelineMetrics.PDF_LOAD, loadStart);
+            return extractFields(document, pdfFile.getName(), limits, templates, report);
+        } catch (ExtractionLimitException e) {
+            logger.warn("🚫 Rejected {}: {}", pdfFile.getName(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.error("❌ Failed to extract from {}: {}", pdfFile.getName(), e.getMessage(), e);
             throw e;
         }
-
-        return data;
     }
 
-    private static String extractLineValue(String text, String label) {
-        Pattern pattern = Pattern.compile("(?i)" + Pattern.quote(label) + "\\s*(.+)");
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            String value = matcher.group(1).trim();
-            value = value.replaceFirst("^\\([^\\)]+\\)\\s*", "");
-            logger.debug("✔ Extracted line [{}]: {}", label, value);
-            return value;
-        }
-        logger.warn("⚠️ Label not found: {}", label);
-        return "";
+    // Streamed input (e.g. an upload) is buffered by PDFBox according to the memory limits, not on the heap
+    public static Map<String, String> extractFieldsFromPdf(InputStream in, String name, ExtractionLimits limits)
+            throws IOException {
+        return extractFieldsFromPdf(in, name, limits, ExtractionTemplates.builtIn(), new ExtractionReport(name));
     }
 
+    public static Map<String, String> extractFieldsFromPdf(InputStream in, String name, ExtractionLimits limits,
+                                                           ExtractionReport report) throws IOException {
+        return extractFieldsFromPdf(in, name, limits, ExtractionTemplates.builtIn(), report);
+    }
 
-
-    private static String extractBulletsOrPlainSection(String text, String startHeader, String endHeader) {
-        String pattern;
-
-
-
-        if (endHeader == null || endHeader.isEmpty()) {
-            pattern = "(?i)" + Pattern.quote(startHeader) + "\\s*\\n?(.+)$";
-        } else {
-            pattern = "(?i)" + Pattern.quote(startHeader) + "\\s*\\n?(.+?)\\s*(?=" + Pattern.quote(endHeader) + ")";
+    public static Map<String, String> extractFieldsFromPdf(InputStream in, String name, ExtractionLimits limits,
+                                                           ExtractionTemplates templates, ExtractionReport report)
+            throws IOException {
+        logger.info("📄 Extracting fields from PDF: {}", name);
+        long loadStart = System.nanoTime();
+        try (PDDocument document = PDDocument.load(in, limits.memoryUsageSetting())) {
+            PipelineMetrics.record(PipelineMetrics.PDF_LOAD, loadStart);
+            return extractFields(document, name, limits, templates, report);
+        } catch (ExtractionLimitException e) {
+            logger.warn("🚫 Rejected {}: {}", name, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("❌ Failed to extract from {}: {}", name, e.getMessage(), e);
+            throw e;
         }
+    }
 
-        Matcher matcher = Pattern.compile(pattern, Pattern.DOTALL).matcher(text);
-        StringBuilder result = new StringBuilder();
-
-        if (matcher.find()) {
-            String raw = matcher.group(1).trim();
-            String[] lines = raw.split("\\r?\\n");
-
-            StringBuilder currentBullet = new StringBuilder();
-            boolean bulletFound = false;
-            boolean subBulletDetected = false;
-
-            List<Pattern> instructionPatterns = Arrays.asList(
-                    // 🟨 JOB SUMMARY
-                    Pattern.compile("(?i)^\\s*summarize the primary purpose.*"),
-
-                    // 🟧 JOB RESPONSIBILITIES
-                    Pattern.compile("(?i)^\\s*indicate the primary responsibilities.*"),
-
-                    // 🟩 QUALIFICATIONS / SKILLS
-                    Pattern.compile("(?i)^\\s*indicate qualifications and skills.*"),
-                    Pattern.compile("(?i)^\\s*licenses, certifications.*"),
-
-                    // 🟦 ORGANIZATIONAL RELATIONSHIPS
-                    Pattern.compile("(?i)^\\s*provide the primary groups.*"),
-                    Pattern.compile("(?i)^\\s*include any external interactions.*"),
-
-                    // 🟥 RESOURCES MANAGED
-                    Pattern.compile("(?i)^\\s*summary of resources managed.*"),
-
-                    // ✅ Generic fallback (optional)
-                    Pattern.compile("(?i)^\\s*this section describes.*"),
-                    Pattern.compile("(?i)^\\s*describe required knowledge.*"),
-                    Pattern.compile("(?i)^\\s*provide a brief overview.*"),
-
-                    Pattern.compile("(?i)^\\s*\\(not all roles will have non-standard work schedule.*"),
-                    Pattern.compile("(?i)^\\s*include any work schedule, travel.*"),
-                    Pattern.compile("(?i)^\\s*types of requirements.*"),
-                    Pattern.compile("(?i)^\\s*any criteria indicated must be job-related.*")
-
-            );
-
-            for (String line : lines) {
-                String clean = line.trim();
-
-
-                // 🚫 Universal unwanted lines
-                if (clean.matches("(?i)^.*(approved|GMT|Pfizer Confidential|JOB DESCRIPTION|Page \\d+ of \\d+).*") || clean.length() < 3) {
-                    continue;
+    // Strips one page at a time and stops as soon as the remaining pages can no longer change the row.
+    // The template is chosen from the first page, before any text is cleaned.
+    private static Map<String, String> extractFields(PDDocument document, String name, ExtractionLimits limits,
+                                                     ExtractionTemplates templates, ExtractionReport report)
+            throws IOException {
+        int pages = document.getNumberOfPages();
+        limits.checkPages(pages);
+        PDFTextStripper stripper = new PDFTextStripper();
+        LimitedWriter page = new LimitedWriter(limits.maxTextChars());
+        PageFeed feed = null;
+        long stripNanos = 0;
+        int stripped = 0;
+        try {
+            for (int i = 1; i <= pages; i++) {
+                stripper.setStartPage(i);
+                stripper.setEndPage(i);
+                page.clear();
+                long stripStart = System.nanoTime();
+                stripper.writeText(document, page);
+                stripNanos += System.nanoTime() - stripStart;
+                stripped++;
+                if (feed == null) {
+                    feed = new PageFeed(templates.select(page.text()), report);
                 }
-
-//                // 🚫 Instructional phrases (section-specific patterns)
-//                if (clean.matches("(?i)^\\s*(summary of|provide the primary groups|include any external|key role\\(s\\)|this role is responsible for|n/a).*")) {
-//                    logger.debug("🟡 Skipping instruction: {}", clean);
-//                    continue;
-//                }
-
-                String finalClean = clean;
-                boolean isInstruction = instructionPatterns.stream().anyMatch(p -> p.matcher(finalClean).find());
-                if (isInstruction) {
-                    logger.info("🟡 Skipping instruction: {}", clean);
-                    continue;
+                if (feed.add(page.text()) && i < pages) {
+                    break;
                 }
+            }
+        } finally {
+            PipelineMetrics.TEXT_STRIP.record(stripNanos, TimeUnit.NANOSECONDS);
+            PipelineMetrics.PAGES.increment(stripped);
+        }
+        if (feed == null) {
+            feed = new PageFeed(templates.select(""), report);
+        }
+        report.pages(stripped, pages);
+        Map<String, String> data = feed.finish();
+        report.emit();
+        logger.info("✅ PDF extraction complete: {} ({} of {} pages read, template {})", name, stripped, pages,
+                feed.template.name());
+        return data;
+    }
 
+    // Field extraction from the stripped document text; separate from PDF loading so it can be tested directly
+    public static Map<String, String> extractFields(String fullText) {
+        ExtractionReport report = new ExtractionReport("text");
+        Map<String, String> data = extractFields(fullText, report);
+        report.emit();
+        return data;
+    }
 
-                // 🔹 Subheading inside bullet (e.g., "Implementation Leadership:")
-                if (clean.matches("^[A-Z].*:\\s*$")) {
-                    // flush current bullet if any
-                    if (!currentBullet.isEmpty()) {
-                        result.append("> ").append(currentBullet.toString().trim()).append("\n");
-                        currentBullet.setLength(0);
-                    }
-                    result.append("\n ").append(clean.replace(":", "").trim().toUpperCase()).append("\n");
-                    bulletFound = false;
-                    continue;
-                }
+    public static Map<String, String> extractFields(String fullText, ExtractionReport report) {
+        return extractFields(fullText, ExtractionTemplates.builtIn(), report);
+    }
 
-                // 🔹 Detect main bullet
-                if (clean.startsWith("•") || clean.startsWith("") || clean.matches("^[\\-–].+")) {
-                    bulletFound = true;
-                    subBulletDetected = false;
-                    if (!currentBullet.isEmpty()) {
-                        result.append("> ").append(currentBullet.toString().trim()).append("\n");
-                        currentBullet.setLength(0);
-                    }
-                    clean = clean.replaceFirst("^[•\\-–\\s]+", "");
-                    currentBullet.append(clean).append(" ");
-                }
+    // Without page boundaries the template is selected from the whole text
+    public static Map<String, String> extractFields(String fullText, ExtractionTemplates templates,
+                                                    ExtractionReport report) {
+        ExtractionTemplate template = templates.select(fullText);
+        report.template(template.name());
 
-                // 🔸 Detect sub-bullet (e.g., o, ▪)
-                else if (clean.matches("^[o▪→]\\s+.*")) {
-                    if (!currentBullet.isEmpty()) {
-                        result.append("> ").append(currentBullet.toString().trim()).append("\n");
-                        currentBullet.setLength(0);
-                    }
-                    clean = clean.replaceFirst("^[o▪→\\s]+", "");
-                    result.append("   * ").append(clean.trim()).append("\n");
-                    subBulletDetected = true;
-                }
+        // ✅ Clean junk lines (watermarks, stamps, etc.) in one pass
+        long cleanStart = System.nanoTime();
+        fullText = template.cleaner().clean(fullText);
+        PipelineMetrics.record(PipelineMetrics.CLEANING, cleanStart);
 
-                // 🔄 Continuation of bullet
-                else if (bulletFound && !subBulletDetected && currentBullet.length() > 0) {
-                    currentBullet.append(clean).append(" ");
-                }
+        return buildRow(template, template.tokenizer().scan(fullText), report);
+    }
 
-                // 📄 Plain sentence
-                else if (!bulletFound && !clean.isEmpty()) {
-                    result.append(clean).append("\n");
-                }
-            }
+    private static Map<String, String> buildRow(ExtractionTemplate template, SectionTokenizer.Tokens tokens,
+                                                ExtractionReport report) {
+        return buildRow(template, tokens, new SectionFormatter(template, report), report,
+                new String[template.columns().size()]);
+    }
 
-            // Flush final bullet
-            if (!currentBullet.isEmpty()) {
-                result.append("> ").append(currentBullet.toString().trim());
+    // Columns that already have a value (read early by a PageFeed) are kept as they are
+    private static Map<String, String> buildRow(ExtractionTemplate template, SectionTokenizer.Tokens tokens,
+                                                SectionFormatter formatter, ExtractionReport report,
+                                                String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                values[i] = readColumn(template, i, tokens, formatter, report, values);
             }
+        }
+        return new CompactRow(template.schema(), values);
+    }
+
+    private static String readColumn(ExtractionTemplate template, int i, SectionTokenizer.Tokens tokens,
+                                     SectionFormatter formatter, ExtractionReport report, String[] values) {
+        ExtractionTemplate.Column column = template.columns().get(i);
+        return template.schema().value(i, switch (column.kind()) {
+            case LABEL -> extractLineValue(tokens, column.label(), report);
+            case SECTION -> extractBulletsOrPlainSection(formatter, tokens, column, report);
+            case SUBSECTION -> extractSubsection(values[column.source()], column);
+            case EMPTY -> "";
+        });
+    }
 
-        } else {
-            logger.warn("⚠️ Section not found: {} to {}", startHeader, endHeader);
+    private static String extractLineValue(SectionTokenizer.Tokens tokens, String label, ExtractionReport report) {
+        String line = tokens.lineValue(label);
+        if (line != null) {
+            String value = line.trim();
+            return LEADING_PARENTHESES.matcher(value).replaceFirst("");
         }
+        report.labelMissing(label);
+        return "";
+    }
+
+    private static String extractBulletsOrPlainSection(SectionFormatter formatter, SectionTokenizer.Tokens tokens,
+                                                       ExtractionTemplate.Column column, ExtractionReport report) {
+        long start = System.nanoTime();
+        String result = extractBulletsOrPlainSection(formatter, tokens, column.start(), column.end(),
+                column.maxChars(), report);
+        PipelineMetrics.record(column.timer(), start);
+        return result;
+    }
+
+    static String extractBulletsOrPlainSection(ExtractionTemplate template, SectionTokenizer.Tokens tokens,
+                                               String startHeader, String endHeader, ExtractionReport report) {
+        return extractBulletsOrPlainSection(new SectionFormatter(template, report), tokens, startHeader, endHeader,
+                0, report);
+    }
 
-        return result.toString().trim();
+    // ✅ Bullets, sub-bullets, subheadings and plain sentences, formatted straight from the document text
+    private static String extractBulletsOrPlainSection(SectionFormatter formatter, SectionTokenizer.Tokens tokens,
+                                                       String startHeader, String endHeader, int maxChars,
+                                                       ExtractionReport report) {
+        long range = tokens.sectionRange(startHeader, endHeader, maxChars);
+        if (range < 0) {
+            report.sectionMissing(startHeader, endHeader);
+            return "";
+        }
+        return formatter.format(tokens.text(), SectionTokenizer.rangeStart(range), SectionTokenizer.rangeEnd(range));
     }
 
-    private static String extractPreferredFromQualifications(String qualificationsSection) {
+    // Lines of an already formatted section from the subsection header (e.g. PREFERRED QUALIFICATIONS) on
+    private static String extractSubsection(String section, ExtractionTemplate.Column column) {
         StringBuilder preferred = new StringBuilder();
         boolean inPreferred = false;
 
-        String[] lines = qualificationsSection.split("\\r?\\n");
+        String[] lines = LINE_BREAK.split(section);
 
         for (String line : lines) {
             String trimmed = line.trim();
 
-            // ✅ Detect if PREFERRED QUALIFICATIONS appears mid-line
-            if (!inPreferred && trimmed.toUpperCase().contains("PREFERRED QUALIFICATIONS")) {
+            // ✅ Detect if the header appears mid-line
+            if (!inPreferred && trimmed.toUpperCase().contains(column.header())) {
                 inPreferred = true;
 
                 // Split line on header and keep only the content after the header (if any)
-                String[] parts = trimmed.split("(?i)PREFERRED QUALIFICATIONS");
+                String[] parts = column.headerPattern().split(trimmed);
                 if (parts.length > 1 && !parts[1].trim().isEmpty()) {
                     preferred.append(parts[1].trim()).append("\n");
                 }
@@ -260,7 +245,7 @@ public class PdfExtractor {
             }
 
             // ✅ End on next section header (e.g. PHYSICAL/MENTAL REQUIREMENTS)
-            if (inPreferred && trimmed.matches("^[A-Z][A-Z /]{3,}$")) {
+            if (inPreferred && SECTION_HEADER.matcher(trimmed).matches()) {
                 break;
             }
 
@@ -486,4 +471,166 @@ public class PdfExtractor {
 //        return result.toString().trim();
 //    }
 
+
+    /**
+     * Document text fed in pieces (a page at a time). Complete lines are cleaned and tokenized as they
+     * arrive; {@link #add} returns true once no further text could change any field of the row.
+     * A label or section is read as soon as it settles, and text no unread field can still refer to is
+     * dropped, so only the text from the earliest open field on is held.
+     */
+    static final class PageFeed {
+
+        private final ExtractionTemplate template;
+        private final StringBuilder text = new StringBuilder();
+        private final TextWindow window = new TextWindow(text);
+        private final TextCleaner.Feed cleaner;
+        private final SectionTokenizer.Tokens tokens;
+        private final SectionFormatter formatter;
+        private final ExtractionReport report;
+        // Values of the columns already read, null for the rest
+        private final String[] values;
+        private long cleanNanos;
+
+        PageFeed() {
+            this(ExtractionTemplates.builtIn().fallback(), new ExtractionReport("text"));
+        }
+
+        PageFeed(ExtractionTemplate template, ExtractionReport report) {
+            this.template = template;
+            this.cleaner = template.cleaner().feed(text);
+            this.tokens = template.tokenizer().open(window);
+            this.formatter = new SectionFormatter(template, report);
+            this.report = report;
+            this.values = new String[template.columns().size()];
+            report.template(template.name());
+        }
+
+        boolean add(CharSequence chunk) {
+            long start = System.nanoTime();
+            cleaner.append(chunk);
+            cleanNanos += System.nanoTime() - start;
+            tokens.update();
+            boolean settled = true;
+            int keep = window.length();
+            List<ExtractionTemplate.Column> columns = template.columns();
+            for (int i = 0; i < columns.size(); i++) {
+                ExtractionTemplate.Column column = columns.get(i);
+                boolean label = column.kind() == ExtractionTemplate.Kind.LABEL;
+                if (values[i] != null || !(label || column.kind() == ExtractionTemplate.Kind.SECTION)) {
+                    continue;
+                }
+                String keyword = label ? column.label() : column.start();
+                if (label ? tokens.isLineValueSettled(keyword)
+                        : tokens.isSectionSettled(keyword, column.end(), column.maxChars())) {
+                    values[i] = readColumn(template, i, tokens, formatter, report, values);
+                } else {
+                    settled = false;
+                    int from = tokens.firstAfter(keyword);
+                    if (from >= 0) {
+                        keep = Math.min(keep, from);
+                    }
+                }
+            }
+            window.discardBefore(keep);
+            return settled;
+        }
+
+        // Characters of cleaned text currently held
+        int heldChars() {
+            return text.length();
+        }
+
+        Map<String, String> finish() {
+            long start = System.nanoTime();
+            cleaner.finish();
+            PipelineMetrics.CLEANING.record(cleanNanos + System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            tokens.finish();
+            return buildRow(template, tokens, formatter, report, values);
+        }
+    }
+
+    // Cleaned text with a dropped prefix; indexes stay offsets into the whole document
+    private static final class TextWindow implements CharSequence {
+
+        private final StringBuilder text;
+        private int base;
+
+        TextWindow(StringBuilder text) {
+            this.text = text;
+        }
+
+        void discardBefore(int offset) {
+            if (offset > base) {
+                text.delete(0, offset - base);
+                base = offset;
+            }
+        }
+
+        @Override
+        public int length() {
+            return base + text.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return text.charAt(index - base);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start - base, end - base);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+
+    // Text of the current page; fails the strip as soon as the document's text outgrows the limit
+    private static final class LimitedWriter extends Writer {
+
+        private final StringBuilder text = new StringBuilder();
+        private final int maxChars;
+        private long total;
+
+        LimitedWriter(int maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            ensureRoom(len);
+            text.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            ensureRoom(len);
+            text.append(str, off, off + len);
+        }
+
+        private void ensureRoom(int len) throws ExtractionLimitException {
+            total += len;
+            if (maxChars > 0 && total > maxChars) {
+                throw new ExtractionLimitException("Extracted text exceeds " + maxChars + " characters");
+            }
+        }
+
+        void clear() {
+            text.setLength(0);
+        }
+
+        CharSequence text() {
+            return text;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package com.dxc.document.utility;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Timers and counters for each stage of the conversion pipeline. Meters live on Micrometer's global
+ * registry so the static utilities can record without a Spring context; Spring Boot binds its own
+ * registries (Prometheus at /actuator/prometheus) to the global one.
+ */
+public final class PipelineMetrics {
+
+    public static final MeterRegistry REGISTRY = Metrics.globalRegistry;
+
+    // converter.stage{stage=...}: where a document or batch spends its time
+    public static final Timer UPLOAD_RECEIVE = stage("upload_receive");
+    public static final Timer TEMP_FILE_WRITE = stage("temp_file_write");
+    public static final Timer PDF_LOAD = stage("pdf_load");
+    public static final Timer TEXT_STRIP = stage("text_strip");
+    public static final Timer CLEANING = stage("cleaning");
+    public static final Timer WORKBOOK_OPEN = stage("workbook_open");
+    public static final Timer ROW_WRITE = stage("row_write");
+    public static final Timer AUTOSIZE = stage("autosize");
+    public static final Timer WORKBOOK_FLUSH = stage("workbook_flush");
+    public static final Timer WORKBOOK_MATERIALIZE = stage("workbook_materialize");
+
+    // Pages and PDF bytes extracted; pages/sec and bytes/sec are rate() over these
+    public static final Counter PAGES = Counter.builder("converter.extraction.pages")
+            .description("PDF pages stripped").register(REGISTRY);
+    public static final Counter UPLOAD_BYTES = Counter.builder("converter.upload.bytes")
+            .baseUnit("bytes").description("Multipart request bytes received").register(REGISTRY);
+    public static final Counter EXTRACTED_BYTES = Counter.builder("converter.extraction.bytes")
+            .baseUnit("bytes").description("PDF bytes extracted (cache hits excluded)").register(REGISTRY);
+
+    private PipelineMetrics() {
+    }
+
+    public static Timer stage(String stage) {
+        return Timer.builder("converter.stage")
+                .description("Time spent in one stage of the conversion pipeline")
+                .tag("stage", stage)
+                .register(REGISTRY);
+    }
+
+    // Parsing of one document section, tagged with its start header
+    public static Timer section(String startHeader) {
+        return Timer.builder("converter.section.parse")
+                .description("Time spent formatting one section of a document")
+                .tag("section", startHeader)
+                .register(REGISTRY);
+    }
+
+    // Time spent waiting to enter a lock (or a writer queue) before the protected work could start
+    public static Timer lockWait(String lock) {
+        return Timer.builder("converter.lock.wait")
+                .description("Time spent waiting for an Excel writer lock or queue")
+                .tag("lock", lock)
+                .register(REGISTRY);
+    }
+
+    // Items waiting in a queue; remove the gauge when the queue goes away
+    public static Gauge queueDepth(String queue, Collection<?> items) {
+        return Gauge.builder("converter.queue.depth", items, Collection::size)
+                .description("Items waiting in a pipeline queue")
+                .tag("queue", queue)
+                .register(REGISTRY);
+    }
+
+    // Queued/active/completed task meters (executor.*) for a worker pool
+    public static void monitor(String pool, ThreadPoolExecutor executor) {
+        new ExecutorServiceMetrics(executor, pool, Tags.empty()).bindTo(REGISTRY);
+    }
+
+    public static Counter documents(String outcome) {
+        return Counter.builder("converter.documents")
+                .description("Documents processed by outcome")
+                .tag("outcome", outcome)
+                .register(REGISTRY);
+    }
+
+    public static void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
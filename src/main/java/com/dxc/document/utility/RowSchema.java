@@ -0,0 +1,129 @@
+package com.dxc.document.utility;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Column names of a {@link CompactRow} with the ordinal of each, compiled once per column list and
+ * shared by every row with those columns: an extraction template's output, a journal batch, a file
+ * read back. {@link #of} hands out the same instance for the same list, so writers can tell rows of
+ * one layout apart by identity. Columns marked as interned keep one copy of each distinct value.
+ */
+public final class RowSchema {
+
+    // Distinct column lists seen are few (templates, file headers); past this, schemas are simply not shared
+    private static final int MAX_SHARED = 256;
+    // Distinct values pooled per interned column; a column with more is not low-cardinality after all
+    private static final int MAX_POOLED_VALUES = 4096;
+    private static final Map<List<String>, RowSchema> SHARED = new ConcurrentHashMap<>();
+
+    private final List<String> columns;
+    private final Set<String> headers;
+    private final Map<String, Integer> ordinals;
+    // Per ordinal: pool of the column's values, or null when the column is not interned
+    private final Map<String, String>[] pools;
+
+    @SuppressWarnings("unchecked")
+    private RowSchema(List<String> columns, Set<String> interned) {
+        this.columns = distinct(columns);
+        this.headers = Collections.unmodifiableSet(new LinkedHashSet<>(this.columns));
+        this.ordinals = new HashMap<>(columns.size() * 2);
+        this.pools = new Map[columns.size()];
+        for (int i = 0; i < this.columns.size(); i++) {
+            ordinals.put(this.columns.get(i), i);
+            pools[i] = interned.contains(this.columns.get(i)) ? new ConcurrentHashMap<>() : null;
+        }
+    }
+
+    // A header read back from a file may repeat a name; later copies become "NAME (2)", "NAME (3)", ...
+    // so every column keeps its own key
+    private static List<String> distinct(List<String> columns) {
+        Set<String> seen = new HashSet<>(columns.size() * 2);
+        List<String> distinct = new ArrayList<>(columns.size());
+        boolean renamed = false;
+        for (String column : columns) {
+            String name = column;
+            for (int copy = 2; !seen.add(name); copy++) {
+                name = column + " (" + copy + ")";
+                renamed = true;
+            }
+            distinct.add(name);
+        }
+        return renamed ? List.copyOf(distinct) : columns;
+    }
+
+    public static RowSchema of(Collection<String> columns) {
+        List<String> key = List.copyOf(columns);
+        RowSchema schema = SHARED.get(key);
+        if (schema != null) {
+            return schema;
+        }
+        schema = new RowSchema(key, Set.of());
+        if (SHARED.size() >= MAX_SHARED) {
+            return schema;
+        }
+        RowSchema previous = SHARED.putIfAbsent(key, schema);
+        return previous != null ? previous : schema;
+    }
+
+    // Not shared: the pools belong to the template that asked for them
+    static RowSchema withInterned(List<String> columns, Set<String> interned) {
+        return interned.isEmpty() ? of(columns) : new RowSchema(List.copyOf(columns), interned);
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    /** The columns as an unmodifiable set, in order, e.g. for the headers of a write. */
+    public Set<String> headers() {
+        return headers;
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    /** Ordinal of {@code column}, or -1 when this schema does not have it. */
+    public int ordinal(Object column) {
+        Integer ordinal = ordinals.get(column);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /** Ordinal of each of {@code columns} in this schema (-1 where missing). */
+    public int[] ordinals(String[] columns) {
+        int[] result = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            result[i] = ordinal(columns[i]);
+        }
+        return result;
+    }
+
+    /** {@code value} as stored in column {@code ordinal}: "" for empty, the pooled copy for an interned column. */
+    public String value(int ordinal, String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        Map<String, String> pool = pools[ordinal];
+        if (pool == null) {
+            return value;
+        }
+        String pooled = pool.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (pool.size() >= MAX_POOLED_VALUES) {
+            return value;
+        }
+        pooled = pool.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+}
@@ -0,0 +1,210 @@
+package com.dxc.document.utility;
+
+import java.util.Locale;
+
+/**
+ * Formats a section body into its cell text: "> " main bullets with their continuation lines joined,
+ * "   * " sub-bullets, upper-cased subheadings and plain sentences. Lines are classified by hand over
+ * offsets into the document text, so no line, prefix-stripped or trimmed copies are made, and output
+ * goes into builders reused for every section of a document. One instance per document (not thread-safe).
+ * <p>
+ * The result is exactly what the former regex formatter produced: lines split on {@code \r?\n} and
+ * trimmed, subheadings {@code ^[A-Z].*:\s*$}, bullets starting with •, U+F0B7 or {@code ^[\-–].+},
+ * sub-bullets {@code ^[o▪→]\s+.*}, prefixes {@code ^[•\-–\s]+} and {@code ^[o▪→\s]+} removed.
+ */
+final class SectionFormatter {
+
+    private final ExtractionTemplate template;
+    private final ExtractionReport report;
+    private final StringBuilder out = new StringBuilder(256);
+    private final StringBuilder bullet = new StringBuilder(128);
+
+    SectionFormatter(ExtractionTemplate template, ExtractionReport report) {
+        this.template = template;
+        this.report = report;
+    }
+
+    /** Formatted text of text[from, to). */
+    String format(CharSequence text, int from, int to) {
+        out.setLength(0);
+        bullet.setLength(0);
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+
+        boolean bulletFound = false;
+        boolean subBulletDetected = false;
+        int lineStart = from;
+        while (true) {
+            int newline = lineStart;
+            while (newline < to && text.charAt(newline) != '\n') {
+                newline++;
+            }
+            int start = lineStart;
+            int end = newline;
+            if (newline < to && end > start && text.charAt(end - 1) == '\r') {
+                end--;
+            }
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;
+            }
+
+            ExtractionTemplate.LineFilter filter = end - start < 3
+                    ? ExtractionTemplate.LineFilter.JUNK : template.filter(text, start, end);
+            if (filter == ExtractionTemplate.LineFilter.JUNK) {
+                report.lineSkipped();
+            } else if (filter == ExtractionTemplate.LineFilter.INSTRUCTION) {
+                report.instructionSkipped(text, start, end);
+            } else if (isSubheading(text, start, end)) {
+                flushBullet();
+                out.append("\n ");
+                appendSubheading(text, start, end);
+                out.append('\n');
+                bulletFound = false;
+            } else if (isBullet(text, start, end)) {
+                bulletFound = true;
+                subBulletDetected = false;
+                flushBullet();
+                int content = start;
+                while (content < end && isBulletPrefix(text.charAt(content))) {
+                    content++;
+                }
+                bullet.append(text, content, end).append(' ');
+            } else if (isSubBullet(text, start, end)) {
+                flushBullet();
+                int content = start;
+                while (content < end && isSubBulletPrefix(text.charAt(content))) {
+                    content++;
+                }
+                while (content < end && text.charAt(content) <= ' ') {
+                    content++;
+                }
+                out.append("   * ").append(text, content, end).append('\n');
+                subBulletDetected = true;
+            } else if (bulletFound && !subBulletDetected && !bullet.isEmpty()) {
+                bullet.append(text, start, end).append(' ');
+            } else if (!bulletFound) {
+                out.append(text, start, end).append('\n');
+            }
+
+            if (newline >= to) {
+                break;
+            }
+            lineStart = newline + 1;
+        }
+
+        if (!bullet.isEmpty()) {
+            out.append("> ");
+            appendTrimmed(bullet);
+        }
+        int start = 0;
+        int end = out.length();
+        while (start < end && out.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && out.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return out.substring(start, end);
+    }
+
+    private void flushBullet() {
+        if (!bullet.isEmpty()) {
+            out.append("> ");
+            appendTrimmed(bullet);
+            out.append('\n');
+            bullet.setLength(0);
+        }
+    }
+
+    private void appendTrimmed(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        out.append(text, start, end);
+    }
+
+    // Colons removed, trimmed and upper-cased; only non-ASCII text (or a locale that changes 'i') takes the String path
+    private void appendSubheading(CharSequence text, int start, int end) {
+        while (end > start && (text.charAt(end - 1) == ':' || text.charAt(end - 1) <= ' ')) {
+            end--;
+        }
+        boolean ascii = true;
+        for (int i = start; i < end && ascii; i++) {
+            ascii = text.charAt(i) < 128;
+        }
+        String language = Locale.getDefault().getLanguage();
+        if (!ascii || language.equals("tr") || language.equals("az")) {
+            out.append(text.subSequence(start, end).toString().replace(":", "").toUpperCase());
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c != ':') {
+                out.append(c >= 'a' && c <= 'z' ? (char) (c - 32) : c);
+            }
+        }
+    }
+
+    // Trimmed lines only: the trailing \s* can never hold anything, so the colon is the last character
+    private static boolean isSubheading(CharSequence text, int start, int end) {
+        char first = text.charAt(start);
+        return first >= 'A' && first <= 'Z' && end - start >= 2 && text.charAt(end - 1) == ':'
+                && !containsLineTerminator(text, start + 1, end - 1);
+    }
+
+    private static boolean isBullet(CharSequence text, int start, int end) {
+        char first = text.charAt(start);
+        if (first == '•' || first == '\uF0B7') {
+            return true;
+        }
+        return (first == '-' || first == '–') && end - start >= 2 && !containsLineTerminator(text, start + 1, end);
+    }
+
+    private static boolean isSubBullet(CharSequence text, int start, int end) {
+        char first = text.charAt(start);
+        if ((first != 'o' && first != '▪' && first != '→') || end - start < 2
+                || !isRegexWhitespace(text.charAt(start + 1))) {
+            return false;
+        }
+        int rest = start + 1;
+        while (rest < end && isRegexWhitespace(text.charAt(rest))) {
+            rest++;
+        }
+        return !containsLineTerminator(text, rest, end);
+    }
+
+    private static boolean isBulletPrefix(char c) {
+        return c == '•' || c == '-' || c == '–' || isRegexWhitespace(c);
+    }
+
+    private static boolean isSubBulletPrefix(char c) {
+        return c == 'o' || c == '▪' || c == '→' || isRegexWhitespace(c);
+    }
+
+    private static boolean containsLineTerminator(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // \s in java.util.regex without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+}
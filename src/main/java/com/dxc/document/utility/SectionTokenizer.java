@@ -0,0 +1,257 @@
+package com.dxc.document.utility;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Finds every occurrence of a fixed set of field labels and section headers in one pass over the
+ * cleaned text, then answers label-value and section-slice lookups from those offsets.
+ * Matching is ASCII case-insensitive (a {@link KeywordAutomaton}) and the slices are exactly what the
+ * former {@code LABEL\s*(.+)} and {@code START\s*\n?(.+?)\s*(?=END)} regex scans captured.
+ */
+final class SectionTokenizer {
+
+    private final KeywordAutomaton automaton;
+    private final Map<String, Integer> indexByKeyword = new HashMap<>();
+
+    SectionTokenizer(String... keywords) {
+        this.automaton = new KeywordAutomaton(keywords);
+        for (int k = 0; k < keywords.length; k++) {
+            indexByKeyword.put(keywords[k], k);
+        }
+    }
+
+    Tokens scan(CharSequence text) {
+        Tokens tokens = new Tokens(text);
+        tokens.finish();
+        return tokens;
+    }
+
+    // Tokens over text that is still being appended to: call update() after each append, finish() after the last
+    Tokens open(CharSequence text) {
+        return new Tokens(text);
+    }
+
+    static int rangeStart(long range) {
+        return (int) (range >>> 32);
+    }
+
+    static int rangeEnd(long range) {
+        return (int) range;
+    }
+
+    private static long range(int start, int end) {
+        return (long) start << 32 | end;
+    }
+
+    // \s in java.util.regex without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    // Characters '.' does not match
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    final class Tokens {
+
+        private final CharSequence text;
+        private final int[][] positions = new int[automaton.size()][];
+        private final int[] counts = new int[automaton.size()];
+        private int scanned;
+        private int state = KeywordAutomaton.START;
+        private boolean complete;
+
+        private Tokens(CharSequence text) {
+            this.text = text;
+        }
+
+        // A keyword is reported once its last character arrives, so all text seen so far can be scanned;
+        // the automaton state carries a keyword that straddles two appends
+        void update() {
+            scan();
+        }
+
+        void finish() {
+            scan();
+            complete = true;
+        }
+
+        private void scan() {
+            int limit = text.length();
+            for (int i = scanned; i < limit; i++) {
+                state = automaton.next(state, text.charAt(i));
+                for (int k : automaton.hits(state)) {
+                    if (positions[k] == null) {
+                        positions[k] = new int[4];
+                    } else if (counts[k] == positions[k].length) {
+                        positions[k] = Arrays.copyOf(positions[k], counts[k] * 2);
+                    }
+                    // Hits for one keyword end, and so start, in increasing order
+                    positions[k][counts[k]++] = i - automaton.length(k) + 1;
+                }
+            }
+            scanned = limit;
+        }
+
+        /**
+         * Rest of the line after the first occurrence of {@code label} (skipping whitespace and
+         * line breaks), or {@code null} when the label is not present.
+         */
+        String lineValue(String label) {
+            int r = lineValueStart(label);
+            return r < 0 ? null : text.subSequence(r, lineEnd(r)).toString();
+        }
+
+        // True once appending text can no longer change lineValue(label)
+        boolean isLineValueSettled(String label) {
+            if (complete) {
+                return true;
+            }
+            int r = lineValueStart(label);
+            return r >= 0 && lineEnd(r) < text.length();
+        }
+
+        private int lineValueStart(String label) {
+            int k = index(label);
+            for (int n = 0; n < counts[k]; n++) {
+                int p = positions[k][n] + label.length();
+                int q = skipWhitespace(p);
+                if (q < text.length() && !isLineTerminator(text.charAt(q))) {
+                    return q;
+                }
+                // Nothing printable left on the line: the regex would backtrack into the whitespace
+                for (int r = q - 1; r >= p; r--) {
+                    if (!isLineTerminator(text.charAt(r))) {
+                        return r;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Text between {@code startHeader} and the next {@code endHeader} (or the end of the
+         * document when {@code endHeader} is empty), or {@code null} when the section is missing.
+         */
+        String section(String startHeader, String endHeader) {
+            long range = sectionRange(startHeader, endHeader);
+            return range < 0 ? null : text.subSequence(rangeStart(range), rangeEnd(range)).toString();
+        }
+
+        /**
+         * Same slice as {@link #section} without copying it: {@code start << 32 | end} offsets into
+         * {@link #text()}, or -1 when the section is missing.
+         */
+        long sectionRange(String startHeader, String endHeader) {
+            int s = index(startHeader);
+            boolean openEnded = endHeader == null || endHeader.isEmpty();
+            int e = openEnded ? -1 : index(endHeader);
+
+            for (int n = 0; n < counts[s]; n++) {
+                int p = positions[s][n] + startHeader.length();
+                int q = skipWhitespace(p);
+                if (openEnded) {
+                    if (q < text.length()) {
+                        return range(q, text.length());
+                    }
+                    if (q > p) {
+                        return range(q - 1, text.length());
+                    }
+                    continue;
+                }
+
+                // The section body needs at least one character before the end header
+                int m = firstAtOrAfter(e, q + 1);
+                if (m >= 0) {
+                    // Lazy body: trailing whitespace belongs to the \s* before the end header
+                    while (m > q + 1 && isRegexWhitespace(text.charAt(m - 1))) {
+                        m--;
+                    }
+                    return range(q, m);
+                }
+                if (q > p && firstAtOrAfter(e, q) == q) {
+                    return range(q - 1, q);
+                }
+            }
+            return -1;
+        }
+
+        // sectionRange cut after maxChars characters of body (no cut when maxChars is not positive)
+        long sectionRange(String startHeader, String endHeader, int maxChars) {
+            long range = sectionRange(startHeader, endHeader);
+            if (range < 0 || maxChars <= 0) {
+                return range;
+            }
+            int start = rangeStart(range);
+            return range(start, Math.min(rangeEnd(range), start + maxChars));
+        }
+
+        CharSequence text() {
+            return text;
+        }
+
+        // True once appending text can no longer change sectionRange(startHeader, endHeader, maxChars). An
+        // open-ended section runs to the end of the document, so without a cap it only settles when the
+        // text is complete.
+        boolean isSectionSettled(String startHeader, String endHeader, int maxChars) {
+            if (complete) {
+                return true;
+            }
+            int s = index(startHeader);
+            if (counts[s] == 0) {
+                return false;
+            }
+            int q = skipWhitespace(positions[s][0] + startHeader.length());
+            if (endHeader == null || endHeader.isEmpty()) {
+                // The first start header with printable text after it gives the slice
+                return maxChars > 0 && q + maxChars <= text.length();
+            }
+            // Settled once the first start header has an end header after its body; until then a later
+            // end header could still produce a different slice
+            return firstAtOrAfter(index(endHeader), q + 1) >= 0;
+        }
+
+        /**
+         * Offset just after the first occurrence of {@code keyword}, or -1 when it has not been seen.
+         * {@link #lineValue} and {@link #sectionRange} for that keyword never read text before it.
+         */
+        int firstAfter(String keyword) {
+            int k = index(keyword);
+            return counts[k] == 0 ? -1 : positions[k][0] + keyword.length();
+        }
+
+        private int index(String keyword) {
+            Integer k = indexByKeyword.get(keyword);
+            if (k == null) {
+                throw new IllegalArgumentException("Unknown keyword: " + keyword);
+            }
+            return k;
+        }
+
+        private int firstAtOrAfter(int k, int from) {
+            for (int n = 0; n < counts[k]; n++) {
+                if (positions[k][n] >= from) {
+                    return positions[k][n];
+                }
+            }
+            return -1;
+        }
+
+        private int skipWhitespace(int i) {
+            while (i < text.length() && isRegexWhitespace(text.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private int lineEnd(int i) {
+            while (i < text.length() && !isLineTerminator(text.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
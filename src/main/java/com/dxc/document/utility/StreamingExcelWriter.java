@@ -0,0 +1,443 @@
+package com.dxc.document.utility;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.streaming.DeferredSXSSFSheet;
+import org.apache.poi.xssf.streaming.DeferredSXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * Append-only xlsx writer backed by {@link SXSSFWorkbook}. Every append becomes a new
+ * immutable part file next to the target, so existing rows are never re-parsed; the row
+ * count and part count live in a small sidecar file. {@link #materialize} streams all parts
+ * into the target workbook with a bounded row window, keeping heap flat for any output size.
+ */
+public class StreamingExcelWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingExcelWriter.class);
+
+    private static final String KEY_ROWS = "rows";
+    private static final String KEY_PARTS = "parts";
+    private static final String KEY_MATERIALIZED = "materializedParts";
+    private static final String KEY_COLUMNS = "columns";
+    private static final String KEY_COLUMN_NAME = "column.";
+    private static final String KEY_JOURNAL_SEQ = "journalSeq";
+
+    public static void appendDataToExcel(String filePath, Set<String> headers, List<Map<String, String>> rows,
+                                         int rowWindow, ColumnWidthEstimator.Mode widthMode) throws IOException {
+        appendDataToExcel(filePath, headers, rows, rowWindow, widthMode, -1);
+    }
+
+    // Not synchronized: appends and materialization of one file must be serialized by the caller (see OutputWorkbook).
+    // journalSeq >= 0 is recorded with the part count, so a journal replay knows these rows are already written
+    public static void appendDataToExcel(String filePath, Set<String> headers, List<Map<String, String>> rows,
+                                         int rowWindow, ColumnWidthEstimator.Mode widthMode, long journalSeq)
+            throws IOException {
+        logger.info("📄 Starting streaming append: {} ({} rows)", filePath, rows.size());
+        Properties meta = loadMeta(filePath);
+        int partIndex = intValue(meta, KEY_PARTS) + 1;
+        Path partsDir = partsDir(filePath);
+        Files.createDirectories(partsDir);
+        Path part = partsDir.resolve(partName(partIndex));
+
+        // Every part is written in the workbook's column order, extended by this batch's new columns
+        List<String> stored = storedColumns(filePath, meta);
+        List<String> columns = ExcelWriterUtil.mergeColumns(stored, headers);
+
+        // AUTOSIZE needs every cell in memory, which SXSSF cannot offer: estimate instead
+        boolean headerOnly = widthMode == ColumnWidthEstimator.Mode.HEADER_ONCE;
+        ColumnWidthEstimator estimator = ColumnWidthEstimator.load(filePath, columns.size());
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        try {
+            long writeStart = System.nanoTime();
+            writeSheet(workbook, new LinkedHashSet<>(columns), rows, estimator,
+                    !headerOnly || columns.size() > stored.size(), !headerOnly);
+            PipelineMetrics.record(PipelineMetrics.ROW_WRITE, writeStart);
+
+            long flushStart = System.nanoTime();
+            Path tmp = Files.createTempFile(partsDir, "part-", ".tmp");
+            try (OutputStream os = Files.newOutputStream(tmp)) {
+                workbook.write(os);
+            }
+            Files.move(tmp, part, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            PipelineMetrics.record(PipelineMetrics.WORKBOOK_FLUSH, flushStart);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+
+        estimator.store();
+        meta.setProperty(KEY_COLUMNS, String.valueOf(columns.size()));
+        for (int i = 0; i < columns.size(); i++) {
+            meta.setProperty(KEY_COLUMN_NAME + i, columns.get(i));
+        }
+        meta.setProperty(KEY_PARTS, String.valueOf(partIndex));
+        meta.setProperty(KEY_ROWS, String.valueOf(intValue(meta, KEY_ROWS) + rows.size()));
+        if (journalSeq >= 0) {
+            meta.setProperty(KEY_JOURNAL_SEQ, String.valueOf(journalSeq));
+        }
+        storeMeta(filePath, meta);
+        logger.info("✅ Streaming part written: {} (total rows {})", part.getFileName(), meta.getProperty(KEY_ROWS));
+    }
+
+    /**
+     * Writes a standalone workbook holding only {@code rows} to {@code os}; nothing is kept on disk
+     * apart from SXSSF's own temp file, which is disposed before returning.
+     */
+    public static void write(OutputStream os, Set<String> headers, List<Map<String, String>> rows,
+                             int rowWindow, ColumnWidthEstimator.Mode widthMode) throws IOException {
+        boolean headerOnly = widthMode == ColumnWidthEstimator.Mode.HEADER_ONCE;
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        try {
+            writeSheet(workbook, headers, rows, ColumnWidthEstimator.inMemory(headers.size()), true, !headerOnly);
+            workbook.write(os);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * Like {@link #write(OutputStream, Set, List, int, ColumnWidthEstimator.Mode)}, but rows are pulled
+     * from {@code rows} while the sheet entry is being written, so each one reaches {@code os} as soon as
+     * the iterator yields it (e.g. as each PDF is extracted) and no temp file is used. Column widths are
+     * written ahead of the rows and can only come from the headers.
+     */
+    public static void write(OutputStream os, Set<String> headers, Iterator<Map<String, String>> rows,
+                             int rowWindow) throws IOException {
+        DeferredSXSSFWorkbook workbook = new DeferredSXSSFWorkbook(rowWindow);
+        try {
+            DeferredSXSSFSheet sheet = workbook.createSheet("Sheet1");
+            CellStyle wrapStyle = workbook.createCellStyle();
+            wrapStyle.setWrapText(true);
+            ExcelWriterUtil.setHeaderWidths(sheet, headers);
+
+            sheet.setRowGenerator(generated -> {
+                Row headerRow = generated.createRow(0);
+                int col = 0;
+                for (String h : headers) {
+                    Cell cell = headerRow.createCell(col++);
+                    cell.setCellValue(h);
+                    cell.setCellStyle(wrapStyle);
+                }
+                int rowNum = 1;
+                HeaderLookup lookup = new HeaderLookup(headers);
+                while (rows.hasNext()) {
+                    Map<String, String> data = rows.next();
+                    Row row = generated.createRow(rowNum++);
+                    for (int c = 0; c < lookup.size(); c++) {
+                        Cell cell = row.createCell(c);
+                        cell.setCellValue(ExcelWriterUtil.sanitize(lookup.value(data, c)));
+                        cell.setCellStyle(wrapStyle);
+                    }
+                }
+            });
+            workbook.write(os);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void writeSheet(SXSSFWorkbook workbook, Set<String> headers, List<Map<String, String>> rows,
+                                   ColumnWidthEstimator estimator, boolean observeHeader, boolean observeValues) {
+        Sheet sheet = workbook.createSheet("Sheet1");
+        CellStyle wrapStyle = workbook.createCellStyle();
+        wrapStyle.setWrapText(true);
+
+        Row headerRow = sheet.createRow(0);
+        int col = 0;
+        for (String h : headers) {
+            Cell cell = headerRow.createCell(col++);
+            cell.setCellValue(h);
+            cell.setCellStyle(wrapStyle);
+            if (observeHeader) {
+                estimator.observe(col - 1, h);
+            }
+        }
+
+        int rowNum = 1;
+        HeaderLookup lookup = new HeaderLookup(headers);
+        for (Map<String, String> data : rows) {
+            Row row = sheet.createRow(rowNum++);
+            for (col = 0; col < lookup.size(); col++) {
+                String value = ExcelWriterUtil.sanitize(lookup.value(data, col));
+                if (observeValues) {
+                    estimator.observe(col, value);
+                }
+                Cell cell = row.createCell(col);
+                cell.setCellValue(value);
+                cell.setCellStyle(wrapStyle);
+            }
+        }
+        estimator.apply(sheet);
+    }
+
+    /**
+     * Rebuilds {@code filePath} from its part files if parts were added since the last call.
+     * Returns {@code false} when there is nothing to materialize.
+     */
+    public static boolean materialize(String filePath, int rowWindow) throws IOException {
+        Properties meta = loadMeta(filePath);
+        int parts = intValue(meta, KEY_PARTS);
+        if (parts == 0) {
+            return false;
+        }
+        if (parts == intValue(meta, KEY_MATERIALIZED) && new File(filePath).exists()) {
+            return true;
+        }
+
+        logger.info("🔄 Materializing {} from {} part(s)", filePath, parts);
+        long materializeStart = System.nanoTime();
+        Path target = Path.of(filePath).toAbsolutePath();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        try {
+            Sheet sheet = workbook.createSheet("Sheet1");
+            CellStyle wrapStyle = workbook.createCellStyle();
+            wrapStyle.setWrapText(true);
+
+            // Earlier parts may have fewer columns; the header row comes from the full list
+            PartCopier copier = new PartCopier(sheet, wrapStyle);
+            copier.addRow(storedColumns(filePath, meta));
+            for (int i = 1; i <= parts; i++) {
+                copier.copy(partsDir(filePath).resolve(partName(i)).toFile());
+            }
+            ColumnWidthEstimator.load(filePath, intValue(meta, KEY_COLUMNS)).apply(sheet);
+
+            Path tmp = Files.createTempFile(target.getParent(), "sheet-", ".tmp");
+            try (OutputStream os = Files.newOutputStream(tmp)) {
+                workbook.write(os);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+
+        meta.setProperty(KEY_MATERIALIZED, String.valueOf(parts));
+        storeMeta(filePath, meta);
+        PipelineMetrics.record(PipelineMetrics.WORKBOOK_MATERIALIZE, materializeStart);
+        logger.info("✅ Materialized {} ({} rows)", filePath, meta.getProperty(KEY_ROWS));
+        return true;
+    }
+
+    /**
+     * SAX-reads the first sheet of a workbook written by this class or {@link ExcelWriterUtil}: row 0
+     * names the columns, every later row is passed on keyed by them, with the formula guard undone.
+     */
+    public static void readRows(Path file, Consumer<Map<String, String>> rows) throws IOException {
+        RowReader reader = new RowReader(rows);
+        parseFirstSheet(file.toFile(), reader);
+    }
+
+    public static int rowCount(String filePath) throws IOException {
+        return intValue(loadMeta(filePath), KEY_ROWS);
+    }
+
+    // Last journal sequence number written as a part, or -1
+    public static long journalSeq(String filePath) throws IOException {
+        return Long.parseLong(loadMeta(filePath).getProperty(KEY_JOURNAL_SEQ, "-1"));
+    }
+
+    // Column names in workbook order; files from before the names were kept take them from the last part
+    private static List<String> storedColumns(String filePath, Properties meta) throws IOException {
+        int parts = intValue(meta, KEY_PARTS);
+        if (parts == 0) {
+            return new ArrayList<>();
+        }
+        int count = intValue(meta, KEY_COLUMNS);
+        if (meta.getProperty(KEY_COLUMN_NAME + (count - 1)) == null) {
+            RowReader reader = new RowReader(row -> {
+            });
+            parseFirstSheet(partsDir(filePath).resolve(partName(parts)).toFile(), reader);
+            return new ArrayList<>(reader.headers);
+        }
+        List<String> columns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            columns.add(meta.getProperty(KEY_COLUMN_NAME + i));
+        }
+        return columns;
+    }
+
+    private static Path partsDir(String filePath) {
+        return Path.of(filePath + ".parts");
+    }
+
+    private static String partName(int index) {
+        return String.format("part-%05d.xlsx", index);
+    }
+
+    private static Properties loadMeta(String filePath) throws IOException {
+        Properties meta = new Properties();
+        File metaFile = new File(filePath + ".meta");
+        if (metaFile.exists()) {
+            try (InputStream is = new FileInputStream(metaFile)) {
+                meta.load(is);
+            }
+        }
+        return meta;
+    }
+
+    private static void storeMeta(String filePath, Properties meta) throws IOException {
+        Path metaFile = Path.of(filePath + ".meta").toAbsolutePath();
+        Path tmp = Files.createTempFile(metaFile.getParent(), "meta-", ".tmp");
+        try (OutputStream os = new FileOutputStream(tmp.toFile())) {
+            meta.store(os, "streaming writer state");
+        }
+        Files.move(tmp, metaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int intValue(Properties meta, String key) {
+        return Integer.parseInt(meta.getProperty(key, "0"));
+    }
+
+    private static void parseFirstSheet(File file, XSSFSheetXMLHandler.SheetContentsHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), strings, handler,
+                    new DataFormatter(), false));
+            try (InputStream sheet = reader.getSheetsData().next()) {
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to read " + file.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    // SAX-reads a part and re-emits its rows into the merged sheet; nothing is kept in a DOM
+    private static final class PartCopier implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Sheet target;
+        private final CellStyle wrapStyle;
+        private final List<String> values = new ArrayList<>();
+        private int nextRow;
+        private boolean inHeader;
+
+        PartCopier(Sheet target, CellStyle wrapStyle) {
+            this.target = target;
+            this.wrapStyle = wrapStyle;
+        }
+
+        // Data rows only: each part's own header row is skipped
+        void copy(File part) throws IOException {
+            parseFirstSheet(part, this);
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values.clear();
+            inHeader = rowNum == 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!inHeader) {
+                addRow(values);
+            }
+        }
+
+        // Values were already sanitized when the part was written
+        void addRow(List<String> values) {
+            Row row = target.createRow(nextRow++);
+            for (int c = 0; c < values.size(); c++) {
+                Cell cell = row.createCell(c);
+                String value = values.get(c);
+                cell.setCellValue(value == null ? "" : value);
+                cell.setCellStyle(wrapStyle);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = new CellReference(cellReference).getCol();
+            while (values.size() <= col) {
+                values.add(null);
+            }
+            values.set(col, formattedValue);
+        }
+    }
+
+    // Row 0 gives the column names; empty cells are skipped by the SAX handler and come out as ""
+    private static final class RowReader implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<Map<String, String>> rows;
+        private final List<String> headers = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private RowSchema schema;
+        private boolean inHeader;
+
+        RowReader(Consumer<Map<String, String>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values.clear();
+            inHeader = rowNum == 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (inHeader) {
+                headers.addAll(values);
+                return;
+            }
+            if (schema == null) {
+                schema = RowSchema.of(headers);
+            }
+            String[] row = new String[schema.size()];
+            for (int c = 0; c < row.length && c < values.size(); c++) {
+                String value = values.get(c);
+                row[c] = value == null ? null : ExcelWriterUtil.unsanitize(value);
+            }
+            rows.accept(CompactRow.of(schema, row));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = new CellReference(cellReference).getCol();
+            while (values.size() <= col) {
+                values.add(null);
+            }
+            values.set(col, formattedValue);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.dxc.document.utility;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Declarative description of one document layout, as written in a template file (YAML or JSON).
+ * {@link ExtractionTemplate#compile} validates it and turns it into the matchers used per document.
+ *
+ * @param name        unique template name, reported with every extracted document
+ * @param priority    among templates whose fingerprint matches, the highest priority wins
+ * @param fallback    used when no fingerprint matches (at most one template)
+ * @param fingerprint phrases that must all appear on the first page (ASCII case-insensitive)
+ * @param cleaning    lines dropped from the whole document before fields are read
+ * @param sections    lines dropped while formatting a section body
+ * @param columns     output columns, in output order
+ */
+@JsonIgnoreProperties(ignoreUnknown = false)
+public record TemplateDefinition(String name, int priority, boolean fallback, List<String> fingerprint,
+                                 Cleaning cleaning, SectionRules sections, List<Column> columns) {
+
+    /**
+     * @param stampLines    drop scanner stamps (4+ digits followed by a digit, lowercase letter or backslash)
+     * @param junkPhrases   literal phrases; a line containing one is dropped
+     * @param junkPatterns  regular expressions; a line containing a match is dropped
+     */
+    public record Cleaning(boolean stampLines, List<String> junkPhrases, List<String> junkPatterns) {
+    }
+
+    /**
+     * @param junkPhrases   literal phrases; a section line containing one is skipped
+     * @param junkPatterns  regular expressions; a section line containing a match is skipped
+     * @param instructions  template instruction text; a section line starting with one is skipped
+     */
+    public record SectionRules(List<String> junkPhrases, List<String> junkPatterns, List<String> instructions) {
+    }
+
+    /**
+     * Exactly one of {@code label}, {@code section} or {@code subsection}, or none for a column that
+     * is always empty.
+     *
+     * @param label      rest of the line after this label
+     * @param section    formatted body between two headers
+     * @param subsection part of an earlier section column that starts at a header inside it
+     * @param intern     few distinct values (e.g. a division or location): rows share one copy of each
+     */
+    public record Column(String name, String label, Section section, Subsection subsection, boolean intern) {
+    }
+
+    /**
+     * @param end       empty or missing: the section runs to the end of the document
+     * @param maxChars  when positive, the body is cut after this many characters; lets a page-by-page read
+     *                  stop once an open-ended section is that long instead of reading to the last page
+     */
+    public record Section(String start, String end, int maxChars) {
+    }
+
+    // Lines after the header inside column "of", up to the next all-caps section header
+    public record Subsection(String of, String header) {
+    }
+}
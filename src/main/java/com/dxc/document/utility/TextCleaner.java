@@ -0,0 +1,129 @@
+package com.dxc.document.utility;
+
+/**
+ * Removes junk lines (scan stamps, approval footers, confidentiality banners, page numbers)
+ * and blank lines from stripped PDF text in a single line-by-line pass. The junk markers come
+ * from the extraction template; a line containing any of them is dropped (see {@link JunkFilter}).
+ */
+public final class TextCleaner {
+
+    // Null when the template has no junk markers
+    private final JunkFilter junk;
+    private final boolean stampLines;
+
+    TextCleaner(JunkFilter junk, boolean stampLines) {
+        this.junk = junk;
+        this.stampLines = stampLines;
+    }
+
+    public String clean(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        cleanInto(text, 0, text.length(), out);
+        return out.toString();
+    }
+
+    public Feed feed(StringBuilder out) {
+        return new Feed(this, out);
+    }
+
+    // Cleans text[from, to) into out; to must be the end of the text or a line boundary
+    private void cleanInto(CharSequence text, int from, int to, StringBuilder out) {
+        int start = from;
+        while (start < to) {
+            int end = start;
+            while (end < to && !isLineTerminator(text.charAt(end))) {
+                end++;
+            }
+            int next = end;
+            if (next < to) {
+                next += (text.charAt(next) == '\r' && next + 1 < to && text.charAt(next + 1) == '\n') ? 2 : 1;
+            }
+
+            if (!isBlank(text, start, end) && !isJunkLine(text, start, end)) {
+                out.append(text, start, next);
+            }
+            start = next;
+        }
+    }
+
+    /**
+     * Cleans text that arrives in pieces (e.g. one page at a time) into the same output {@link #clean}
+     * gives for the whole text: complete lines are cleaned as they arrive, a partial last line waits.
+     */
+    public static final class Feed {
+
+        private final TextCleaner cleaner;
+        private final StringBuilder pending = new StringBuilder();
+        private final StringBuilder out;
+
+        private Feed(TextCleaner cleaner, StringBuilder out) {
+            this.cleaner = cleaner;
+            this.out = out;
+        }
+
+        public void append(CharSequence chunk) {
+            pending.append(chunk);
+            // A trailing \r may still be the first half of \r\n
+            int last = pending.length() - 1;
+            if (last >= 0 && pending.charAt(last) == '\r') {
+                last--;
+            }
+            while (last >= 0 && !isLineTerminator(pending.charAt(last))) {
+                last--;
+            }
+            if (last >= 0) {
+                cleaner.cleanInto(pending, 0, last + 1, out);
+                pending.delete(0, last + 1);
+            }
+        }
+
+        public void finish() {
+            cleaner.cleanInto(pending, 0, pending.length(), out);
+            pending.setLength(0);
+        }
+    }
+
+    boolean isJunkLine(CharSequence text, int start, int end) {
+        return (stampLines && isStampLine(text, start, end)) || (junk != null && junk.matches(text, start, end));
+    }
+
+    // Scanner stamps such as "12345abc\..." : 4+ digits at line start followed by a digit, lowercase letter or backslash
+    private static boolean isStampLine(CharSequence text, int start, int end) {
+        int i = start;
+        while (i < end && isRegexWhitespace(text.charAt(i))) {
+            i++;
+        }
+        int digits = 0;
+        while (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            digits++;
+            i++;
+        }
+        if (digits >= 5) {
+            return true;
+        }
+        if (digits < 4 || i >= end) {
+            return false;
+        }
+        char c = text.charAt(i);
+        return (c >= 'a' && c <= 'z') || c == '\\';
+    }
+
+    private static boolean isBlank(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isRegexWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // \s in java.util.regex without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    // Line terminators recognised by ^ and $ in MULTILINE mode
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,62 @@
+package com.dxc.document.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A line-oriented text output (CSV, NDJSON) that can be appended to without reading back what is
+ * already there: a batch is encoded into one buffer, values in header order, and written at the end.
+ */
+public interface TextRowFormat {
+
+    TextRowFormat CSV = new CsvRowFormat();
+    TextRowFormat NDJSON = new NdjsonRowFormat();
+
+    // Whether the file starts with a header record naming the columns
+    boolean hasHeader();
+
+    void appendHeader(StringBuilder out, Collection<String> headers);
+
+    /** Appends {@code row}'s values for {@code headers}; one lookup serves every row of a batch. */
+    void appendRow(StringBuilder out, HeaderLookup headers, Map<String, String> row);
+
+    /** Columns named by the header record at the start of {@code in}, or {@code null} when there is none. */
+    List<String> readHeader(InputStream in) throws IOException;
+
+    /** Length of the complete records at the start of {@code in}; anything after them is a torn write. */
+    long completeLength(InputStream in) throws IOException;
+
+    /** Reads back every row written to {@code in}, keyed by column, with the formula guard undone. */
+    void readRows(InputStream in, Consumer<Map<String, String>> rows) throws IOException;
+
+    /**
+     * Writes the header and {@code rows} to {@code os}, flushing after every row so each one reaches
+     * a streamed response as soon as the iterator yields it. {@code os} is left open.
+     */
+    default void write(OutputStream os, Collection<String> headers, Iterator<Map<String, String>> rows)
+            throws IOException {
+        Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+        StringBuilder line = new StringBuilder(1024);
+        HeaderLookup lookup = new HeaderLookup(headers);
+        if (hasHeader()) {
+            appendHeader(line, headers);
+            writer.append(line);
+        }
+        while (rows.hasNext()) {
+            line.setLength(0);
+            appendRow(line, lookup, rows.next());
+            writer.append(line);
+            writer.flush();
+        }
+        writer.flush();
+    }
+}
@@ -1,11 +1,26 @@
 package com.dxc.document;
 
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 @SpringBootTest
 class DocumentConverterApplicationTests {
 
+	// Keeps the outputs the context opens at startup out of the working directory
+	@TempDir
+	static Path dir;
+
+	@DynamicPropertySource
+	static void outputs(DynamicPropertyRegistry registry) {
+		registry.add("converter.outputs.dir", () -> dir.resolve("outputs").toString());
+		registry.add("converter.outputs.default-file", () -> dir.resolve("sheet.xlsx").toString());
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,49 @@
+package com.dxc.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dxc.document.utility.TextRowFormat;
+
+class AppendOnlyOutputTest {
+
+    private static final Set<String> HEADERS = Set.of("JOB TITLE");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void failedAppendLeavesNoPartialRecords() throws IOException {
+        Path file = dir.resolve("jobs.csv");
+        AppendOnlyOutput output = new AppendOnlyOutput("jobs", file, OutputFormat.CSV);
+        output.append(HEADERS, List.of(Map.of("JOB TITLE", "Analyst")));
+        // An interrupt closes the channel inside the write
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(IOException.class, () -> output.append(HEADERS, List.of(Map.of("JOB TITLE", "Lost"))));
+        } finally {
+            Thread.interrupted();
+        }
+        output.append(HEADERS, List.of(Map.of("JOB TITLE", "Developer")));
+        assertEquals(Files.size(file), Files.size(output.snapshot().file()));
+        output.close();
+
+        List<String> titles = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file)) {
+            TextRowFormat.CSV.readRows(in, row -> titles.add(row.get("JOB TITLE")));
+        }
+        assertEquals(List.of("Analyst", "Developer"), titles);
+    }
+}
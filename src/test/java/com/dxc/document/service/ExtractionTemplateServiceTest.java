@@ -0,0 +1,41 @@
+package com.dxc.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dxc.document.utility.ExtractionTemplates;
+
+class ExtractionTemplateServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void failedReloadKeepsThePreviousSet() throws IOException {
+        Path file = dir.resolve("invoice.yaml");
+        Files.writeString(file, "name: invoice\nfingerprint: [\"Invoice No\"]\ncolumns:\n  - name: NUMBER\n    label: \"Invoice No:\"\n");
+        ExtractionTemplateService service = new ExtractionTemplateService(dir.toString(), 0);
+        ExtractionTemplates loaded = service.current();
+        assertNotNull(loaded.get("invoice"));
+        assertNotNull(loaded.get("job-description"));
+
+        Files.writeString(file, "name: invoice\ncolumns:\n  - name: PART\n    subsection: {of: MISSING, header: \"X\"}\n");
+        service.reloadIfChanged();
+        assertSame(loaded, service.current());
+
+        Files.writeString(file, "name: receipt\ncolumns:\n  - name: TOTAL\n    label: \"Total:\"\n");
+        service.reloadIfChanged();
+        assertNull(service.current().get("invoice"));
+        assertEquals("TOTAL", service.current().get("receipt").columnNames().get(0));
+        service.shutdown();
+    }
+}
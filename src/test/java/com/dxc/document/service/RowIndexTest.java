@@ -0,0 +1,43 @@
+package com.dxc.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class RowIndexTest {
+
+    private static RowIndex index() {
+        RowIndex index = new RowIndex();
+        index.add(Set.of(), List.of(
+                Map.of("JOB TITLE", "Senior Java Developer", "LOCATION", "Pune", "GRADE", "G7"),
+                Map.of("JOB TITLE", "Java Tester", "LOCATION", "New-York", "GRADE", "G5"),
+                Map.of("JOB TITLE", "Data Analyst", "LOCATION", "Pune", "GRADE", "G5")),
+                Set.of("JOB TITLE", "LOCATION")::contains);
+        return index;
+    }
+
+    @Test
+    void fullTextNeedsEveryTokenInSomeIndexedColumn() {
+        assertEquals(List.of("Senior Java Developer"), titles(index().query("java PUNE", Map.of())));
+        assertEquals(List.of("Java Tester"), titles(index().query("york", Map.of())));
+        // GRADE is stored but not indexed
+        assertEquals(List.of(), titles(index().query("g5", Map.of())));
+    }
+
+    @Test
+    void filtersUseTheIndexOrScanTheColumn() {
+        assertEquals(List.of("Java Tester", "Data Analyst"), titles(index().query(null, Map.of("grade", "g5"))));
+        assertEquals(List.of("Data Analyst"), titles(index().query("", Map.of("LOCATION", "pune", "GRADE", "5"))));
+        assertThrows(IllegalArgumentException.class, () -> index().query(null, Map.of("SALARY", "1")));
+    }
+
+    private static List<String> titles(RowIndex.Matches matches) {
+        int title = matches.columns().indexOf("JOB TITLE");
+        return matches.rows().stream().map(row -> matches.value(row, title)).toList();
+    }
+}
@@ -0,0 +1,103 @@
+package com.dxc.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RowJournalTest {
+
+    private static final Set<String> HEADERS = Set.of("JOB TITLE");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tornTailIsDroppedAndAcknowledgedBatchesReplay() throws IOException {
+        Path file = dir.resolve("sheet.xlsx.journal");
+        try (RowJournal journal = new RowJournal(file, 0)) {
+            journal.append(HEADERS, rows("Analyst"));
+            journal.append(HEADERS, rows("Developer"));
+        }
+        long acknowledged = Files.size(file);
+        Files.writeString(file, "{\"seq\":3,\"headers\":[\"JOB", StandardOpenOption.APPEND);
+
+        try (RowJournal journal = new RowJournal(file, 0)) {
+            assertEquals(acknowledged, Files.size(file));
+            assertEquals(2, journal.lastSeq());
+            journal.append(HEADERS, rows("Tester"));
+            assertEquals(List.of("Analyst", "Developer", "Tester"), titles(journal.pending(0)));
+        }
+    }
+
+    @Test
+    void failedAppendIsRolledBackBeforeTheNextOne() throws IOException {
+        Path file = dir.resolve("sheet.xlsx.journal");
+        try (RowJournal journal = new RowJournal(file, 0)) {
+            journal.append(HEADERS, rows("Analyst"));
+            // An interrupt closes the channel inside the write
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(IOException.class, () -> journal.append(HEADERS, rows("Lost")));
+            } finally {
+                Thread.interrupted();
+            }
+            journal.append(HEADERS, rows("Developer"));
+        }
+
+        try (RowJournal journal = new RowJournal(file, 0)) {
+            assertEquals(List.of("Analyst", "Developer"), titles(journal.pending(0)));
+            assertEquals(2, journal.lastSeq());
+        }
+    }
+
+    @Test
+    void discardKeepsBatchesNewerThanTheWorkbook() throws IOException {
+        Path file = dir.resolve("sheet.xlsx.journal");
+        try (RowJournal journal = new RowJournal(file, 0)) {
+            journal.append(HEADERS, rows("Analyst"));
+            journal.append(HEADERS, rows("Developer"));
+            journal.append(HEADERS, rows("Tester"));
+            journal.discardUpTo(1);
+            assertEquals(List.of("Developer", "Tester"), titles(journal.pending(1)));
+            journal.discardUpTo(2);
+            journal.append(HEADERS, rows("Manager"));
+        }
+
+        try (RowJournal journal = new RowJournal(file, 2)) {
+            assertEquals(List.of("Tester", "Manager"), titles(journal.pending(2)));
+            assertEquals(4, journal.lastSeq());
+        }
+    }
+
+    @Test
+    void corruptLineBeforeTheEndIsAnError() throws IOException {
+        Path file = dir.resolve("sheet.xlsx.journal");
+        try (RowJournal journal = new RowJournal(file, 0)) {
+            journal.append(HEADERS, rows("Analyst"));
+        }
+        String line = Files.readString(file);
+        Files.writeString(file, line + "{\"seq\":2,\"hea\n" + line.replace("\"seq\":1", "\"seq\":3"),
+                StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> new RowJournal(file, 0));
+    }
+
+    private static List<Map<String, String>> rows(String title) {
+        return List.of(Map.of("JOB TITLE", title));
+    }
+
+    private static List<String> titles(List<RowJournal.Entry> entries) {
+        return entries.stream().flatMap(entry -> entry.rows().stream()).map(row -> row.get("JOB TITLE")).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.dxc.document.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class CompactRowTest {
+
+    @Test
+    void equalsTheSameRowAsAMap() {
+        CompactRow row = CompactRow.of(RowSchema.of(List.of("TITLE", "GRADE", "NOTES")), "Analyst", "G5", null);
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("TITLE", "Analyst");
+        map.put("GRADE", "G5");
+        map.put("NOTES", "");
+
+        assertEquals(map, row);
+        assertEquals(row, map);
+        assertEquals(map.hashCode(), row.hashCode());
+        assertEquals(List.copyOf(map.keySet()), List.copyOf(row.keySet()));
+        assertEquals(map.entrySet(), row.entrySet());
+    }
+
+    @Test
+    void repeatedColumnNamesKeepOneKeyEach() {
+        RowSchema schema = RowSchema.of(List.of("NAME", "NAME", "CITY", "NAME"));
+        CompactRow row = CompactRow.of(schema, "a", "b", "c", "d");
+
+        assertEquals(List.of("NAME", "NAME (2)", "CITY", "NAME (3)"), schema.columns());
+        assertEquals(row.size(), row.keySet().size());
+        assertEquals(row.size(), row.entrySet().size());
+        assertEquals("b", row.get("NAME (2)"));
+    }
+
+    @Test
+    void headerLookupFollowsEachRowsSchema() {
+        HeaderLookup lookup = new HeaderLookup(List.of("GRADE", "TITLE"));
+        Map<String, String> first = CompactRow.of(RowSchema.of(List.of("TITLE", "GRADE")), "Analyst", "G5");
+        Map<String, String> second = CompactRow.of(RowSchema.of(List.of("GRADE", "CITY")), "G7", "Pune");
+        Map<String, String> plain = Map.of("TITLE", "Tester");
+
+        assertEquals("G5", lookup.value(first, 0));
+        assertEquals("Analyst", lookup.value(first, 1));
+        assertEquals("G7", lookup.value(second, 0));
+        assertEquals("", lookup.value(second, 1));
+        assertEquals("", lookup.value(plain, 0));
+        assertEquals("Tester", lookup.value(plain, 1));
+        assertEquals("Analyst", lookup.value(first, 1));
+    }
+
+    @Test
+    void internedColumnsPoolValuesUpToTheCap() {
+        RowSchema schema = RowSchema.withInterned(List.of("LOCATION", "TITLE"), Set.of("LOCATION"));
+        String pune = schema.value(0, new String("Pune"));
+        assertSame(pune, schema.value(0, new String("Pune")));
+        assertNotSame(schema.value(1, new String("Analyst")), schema.value(1, new String("Analyst")));
+        assertSame("", schema.value(1, new String()));
+
+        for (int i = 0; i < 5000; i++) {
+            schema.value(0, "City " + i);
+        }
+        // Past the cap, new values are kept as they are; pooled ones are still shared
+        assertNotSame(schema.value(0, new String("Mumbai")), schema.value(0, new String("Mumbai")));
+        assertSame(pune, schema.value(0, new String("Pune")));
+    }
+}
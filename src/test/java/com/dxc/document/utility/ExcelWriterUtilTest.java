@@ -0,0 +1,52 @@
+package com.dxc.document.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExcelWriterUtilTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void laterLayoutExtendsTheHeaderRow() throws IOException {
+        Path file = dir.resolve("sheet.xlsx");
+        ExcelWriterUtil.appendDataToExcel(file.toString(), headers("TITLE", "GRADE"), List.of(Map.of("TITLE", "Analyst", "GRADE", "G5")));
+        ExcelWriterUtil.appendDataToExcel(file.toString(), headers("TITLE", "TOTAL"), List.of(Map.of("TITLE", "Invoice", "TOTAL", "12")));
+
+        assertMerged(file);
+    }
+
+    @Test
+    void streamingPartsShareTheMergedColumns() throws IOException {
+        Path file = dir.resolve("sheet.xlsx");
+        StreamingExcelWriter.appendDataToExcel(file.toString(), headers("TITLE", "GRADE"),
+                List.of(Map.of("TITLE", "Analyst", "GRADE", "G5")), 10, ColumnWidthEstimator.Mode.ESTIMATE);
+        StreamingExcelWriter.appendDataToExcel(file.toString(), headers("TITLE", "TOTAL"),
+                List.of(Map.of("TITLE", "Invoice", "TOTAL", "12")), 10, ColumnWidthEstimator.Mode.ESTIMATE);
+        StreamingExcelWriter.materialize(file.toString(), 10);
+
+        assertMerged(file);
+    }
+
+    private static void assertMerged(Path file) throws IOException {
+        List<Map<String, String>> rows = new ArrayList<>();
+        StreamingExcelWriter.readRows(file, rows::add);
+        assertEquals(List.of("TITLE", "GRADE", "TOTAL"), List.copyOf(rows.get(0).keySet()));
+        assertEquals(Map.of("TITLE", "Analyst", "GRADE", "G5", "TOTAL", ""), rows.get(0));
+        assertEquals(Map.of("TITLE", "Invoice", "GRADE", "", "TOTAL", "12"), rows.get(1));
+    }
+
+    private static LinkedHashSet<String> headers(String... names) {
+        return new LinkedHashSet<>(List.of(names));
+    }
+}
@@ -0,0 +1,131 @@
+package com.dxc.document.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ExtractionTemplatesTest {
+
+    private static final String INVOICE = """
+            name: invoice
+            priority: 1
+            fingerprint: ["Invoice No"]
+            columns:
+              - name: NUMBER
+                label: "Invoice No:"
+              - name: LINES
+                section: {start: "ITEMS", end: "TOTAL"}
+              - name: TAXES
+                subsection: {of: LINES, header: "Taxes"}
+              - name: REGION
+                label: "Region:"
+                intern: true
+              - name: NOTES
+            """;
+
+    private static final String CREDIT_NOTE = """
+            name: credit-note
+            priority: 5
+            fingerprint: ["Invoice No", "Credit"]
+            columns:
+              - name: NUMBER
+                label: "Invoice No:"
+            """;
+
+    private static final String GENERIC = """
+            name: generic
+            fallback: true
+            columns:
+              - name: TEXT
+                section: {start: "BEGIN"}
+            """;
+
+    @Test
+    void parsesYamlDefinitions() {
+        TemplateDefinition definition = ExtractionTemplates.parse("invoice.yaml", bytes(INVOICE));
+
+        assertEquals("invoice", definition.name());
+        assertEquals(1, definition.priority());
+        assertFalse(definition.fallback());
+        assertEquals(List.of("Invoice No"), definition.fingerprint());
+        assertEquals(5, definition.columns().size());
+        assertEquals("TOTAL", definition.columns().get(1).section().end());
+        assertEquals("LINES", definition.columns().get(2).subsection().of());
+        assertTrue(definition.columns().get(3).intern());
+
+        ExtractionTemplate template = ExtractionTemplate.compile(definition, "v1", "invoice.yaml");
+        assertEquals(List.of("NUMBER", "LINES", "TAXES", "REGION", "NOTES"), template.columnNames());
+        assertEquals(List.of("LINES", "TAXES"), template.sectionColumnNames());
+    }
+
+    @Test
+    void rejectsUnknownPropertiesAndInvalidColumns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ExtractionTemplates.parse("bad.yaml", bytes("name: x\ncolums: []\n")));
+        assertThrows(IllegalArgumentException.class, () -> compile("""
+                name: broken
+                columns:
+                  - name: PART
+                    subsection: {of: MISSING, header: "X"}
+                """));
+        assertThrows(IllegalArgumentException.class, () -> compile(GENERIC, GENERIC.replace("generic", "other")));
+        assertThrows(IllegalArgumentException.class, () -> compile(INVOICE, INVOICE));
+    }
+
+    @Test
+    void selectsHighestPriorityMatchOtherwiseTheFallback() {
+        ExtractionTemplates templates = compile(INVOICE, GENERIC, CREDIT_NOTE);
+
+        assertEquals("credit-note", templates.select("CREDIT NOTE\ninvoice no: 7").name());
+        assertEquals("invoice", templates.select("Invoice No: 7").name());
+        assertEquals("generic", templates.select("Purchase order 7").name());
+        assertEquals(List.of("credit-note", "invoice", "generic"),
+                templates.templates().stream().map(ExtractionTemplate::name).toList());
+    }
+
+    // A streamed batch writes its header before later files are read: the set's columns must cover them
+    @Test
+    void streamedBatchKeepsColumnsOfLaterTemplates() throws IOException {
+        ExtractionTemplates templates = compile(INVOICE, GENERIC);
+        List<Map<String, String>> rows = List.of(
+                PdfExtractor.extractFields("BEGIN\nfree text\n", templates, new ExtractionReport("generic")),
+                PdfExtractor.extractFields("Invoice No: 7\nRegion: EU\n", templates, new ExtractionReport("invoice")));
+
+        Set<String> headers = new LinkedHashSet<>(CompactRow.headersOf(rows.get(0)));
+        headers.addAll(templates.columns());
+        assertEquals(List.of("TEXT", "NUMBER", "LINES", "TAXES", "REGION", "NOTES"), List.copyOf(headers));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TextRowFormat.CSV.write(out, headers, rows.iterator());
+        List<Map<String, String>> read = new ArrayList<>();
+        TextRowFormat.CSV.readRows(new ByteArrayInputStream(out.toByteArray()), read::add);
+        assertEquals("free text", read.get(0).get("TEXT"));
+        assertEquals("7", read.get(1).get("NUMBER"));
+        assertEquals("EU", read.get(1).get("REGION"));
+    }
+
+    private static ExtractionTemplates compile(String... contents) {
+        List<ExtractionTemplates.Source> sources = new ArrayList<>();
+        for (int i = 0; i < contents.length; i++) {
+            sources.add(new ExtractionTemplates.Source("template-" + i + ".yaml", bytes(contents[i])));
+        }
+        return ExtractionTemplates.compile(sources);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
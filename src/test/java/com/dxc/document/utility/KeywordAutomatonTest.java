@@ -0,0 +1,64 @@
+package com.dxc.document.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The automaton must report exactly the occurrences a {@code (?i)} quoted-literal regex finds at each
+ * offset, including overlapping keywords, mixed case and non-ASCII characters.
+ */
+class KeywordAutomatonTest {
+
+    private static final String[] KEYWORDS = {
+            "JOB", "JOB TITLE:", "TITLE", "LE:", "ob t", "–x", "é", "aaa", "aa"};
+    private static final char[] ALPHABET = "jobtitle:JOBTITLE aAxX–éÉ\n".toCharArray();
+
+    @Test
+    void reportsTheSameOccurrencesAsRegex() {
+        KeywordAutomaton automaton = new KeywordAutomaton(KEYWORDS);
+        Random random = new Random(7);
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            assertEquals(expected(text), actual(automaton, text), () -> "text: " + text);
+        }
+    }
+
+    // "keyword@start" for every keyword and every offset it matches at, in keyword order
+    private static List<String> expected(CharSequence text) {
+        List<String> hits = new ArrayList<>();
+        for (String keyword : KEYWORDS) {
+            var matcher = Pattern.compile("(?i)" + Pattern.quote(keyword)).matcher(text);
+            for (int start = 0; start < text.length(); start++) {
+                if (matcher.region(start, text.length()).lookingAt()) {
+                    hits.add(keyword + "@" + start);
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static List<String> actual(KeywordAutomaton automaton, CharSequence text) {
+        List<List<String>> byKeyword = new ArrayList<>();
+        for (int k = 0; k < automaton.size(); k++) {
+            byKeyword.add(new ArrayList<>());
+        }
+        int state = KeywordAutomaton.START;
+        for (int i = 0; i < text.length(); i++) {
+            state = automaton.next(state, text.charAt(i));
+            for (int k : automaton.hits(state)) {
+                byKeyword.get(k).add(automaton.keyword(k) + "@" + (i - automaton.length(k) + 1));
+            }
+        }
+        return byKeyword.stream().flatMap(List::stream).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.dxc.document.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Golden-output test: every golden/*.txt holds stripped PDF text and the matching .json holds the
+ * fields the original regex pipeline produced for it. Optimisations must keep the output identical.
+ */
+class PdfExtractorGoldenTest {
+
+    private static final Path GOLDEN_DIR = Path.of("src/test/resources/golden");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static Stream<String> documents() throws IOException {
+        try (Stream<Path> files = Files.list(GOLDEN_DIR)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(".txt"))
+                    .map(name -> name.substring(0, name.length() - 4))
+                    .sorted()
+                    .toList()
+                    .stream();
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("documents")
+    void extractionMatchesGoldenOutput(String document) throws IOException {
+        String text = Files.readString(GOLDEN_DIR.resolve(document + ".txt"));
+        Map<String, String> expected = MAPPER.readValue(GOLDEN_DIR.resolve(document + ".json").toFile(),
+                new TypeReference<LinkedHashMap<String, String>>() { });
+
+        Map<String, String> actual = PdfExtractor.extractFields(text);
+
+        assertEquals(expected, actual);
+        assertEquals(expected.keySet().stream().toList(), actual.keySet().stream().toList(), "column order");
+    }
+
+    // Page-by-page extraction must give the same row wherever the text is split, even mid-line or mid-\r\n
+    @ParameterizedTest
+    @MethodSource("documents")
+    void incrementalExtractionMatchesGoldenOutput(String document) throws IOException {
+        String text = Files.readString(GOLDEN_DIR.resolve(document + ".txt"));
+        Map<String, String> expected = PdfExtractor.extractFields(text);
+
+        for (int chunk : new int[] {1, 7, 64, 1000}) {
+            PdfExtractor.PageFeed feed = new PdfExtractor.PageFeed();
+            for (int i = 0; i < text.length(); i += chunk) {
+                feed.add(text.substring(i, Math.min(i + chunk, text.length())));
+            }
+            assertEquals(expected, feed.finish(), "chunk size " + chunk);
+        }
+    }
+
+    // RESOURCES MANAGED is capped, so once it is that long the remaining pages cannot change the row;
+    // fields read along the way let the feed drop the text behind them
+    @Test
+    void feedSettlesBeforeTheLastPageWithTheFullDocumentRow() throws IOException {
+        String first = Files.readString(GOLDEN_DIR.resolve("multipage.txt")) + "\n";
+        String second = "Site budget and headcount are reviewed every quarter.\n".repeat(60);
+        String third = "Appendix line that the row never reads.\n".repeat(60);
+        Map<String, String> expected = PdfExtractor.extractFields(first + second + third);
+
+        PdfExtractor.PageFeed feed = new PdfExtractor.PageFeed();
+        assertFalse(feed.add(first));
+        assertTrue(feed.heldChars() < 200, "held " + feed.heldChars() + " chars after the first page");
+        assertTrue(feed.add(second));
+        assertEquals(0, feed.heldChars());
+        assertEquals(expected, feed.finish());
+    }
+}
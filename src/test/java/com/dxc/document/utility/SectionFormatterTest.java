@@ -0,0 +1,130 @@
+package com.dxc.document.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential test: the hand-written formatter must produce the same cell text and the same report
+ * counts as the regex implementation it replaced (kept below as the reference), for the built-in template.
+ */
+class SectionFormatterTest {
+
+    // Lines as they show up in stripped job descriptions, plus the edge cases of each regex
+    private static final String[] LINES = {
+            "• Lead the implementation of new processes", "Lead the implementation", "continued on this line",
+            "\uF0B7 Manage vendor relationships", "\uF0B7-x", "- Dash bullet", "– En dash bullet", "-", "--", "–x",
+            "o Sub bullet item", "o  o oops", "oval office", "▪ Square sub bullet", "→ Arrow sub bullet", "o\tTabbed",
+            "Implementation Leadership:", "Key Skills :", "A:", "AB:", "A: B:", "Straße:", "lower case heading:",
+            "Summary of resources managed here", "  Summarize the primary purpose & key accountabilities",
+            "(Not all roles will have non-standard work schedule)", "x summarize the primary purpose",
+            "Approved On: 12 Jan", "Page 2 of 5", "10:00 GMT", "Pfizer Confidential", "JOB DESCRIPTION v2",
+            "ok", "", "   ", "\t", "a\rb", "Heading Two:", "• bullet\u0085tail", "- dash tail",
+            "o sub tail", "Über alles:", "ÄPFEL und Birnen", "x", "12345", "Plain sentence. With words."};
+
+    private static final ExtractionTemplate TEMPLATE = ExtractionTemplates.builtIn().fallback();
+
+    @Test
+    void matchesRegexImplementation() {
+        Random random = new Random(11);
+        for (int round = 0; round < 5000; round++) {
+            StringBuilder section = new StringBuilder();
+            int lines = random.nextInt(12);
+            for (int i = 0; i < lines; i++) {
+                if (i > 0) {
+                    section.append(random.nextInt(4) == 0 ? "\r\n" : "\n");
+                }
+                if (random.nextInt(5) == 0) {
+                    section.append("  ");
+                }
+                section.append(LINES[random.nextInt(LINES.length)]);
+            }
+            String text = section.toString();
+
+            ExtractionReport expectedReport = new ExtractionReport("legacy");
+            String expected = legacyFormat(text, expectedReport);
+            ExtractionReport actualReport = new ExtractionReport("legacy");
+            // Embedded in surrounding text, as the formatter sees it in a document
+            String actual = new SectionFormatter(TEMPLATE, actualReport)
+                    .format("HEADER\n" + text + "\nEND", 7, 7 + text.length());
+
+            assertEquals(expected, actual, () -> "section: " + text);
+            assertEquals(expectedReport.toMap(), actualReport.toMap(), () -> "section: " + text);
+        }
+    }
+
+    private static final Pattern LINE_BREAK = Pattern.compile("\\r?\\n");
+    private static final Pattern JUNK_LINE = Pattern.compile("(?i)^.*(approved|GMT|Pfizer Confidential|JOB DESCRIPTION|Page \\d+ of \\d+).*");
+    private static final Pattern SUBHEADING = Pattern.compile("^[A-Z].*:\\s*$");
+    private static final Pattern DASH_BULLET = Pattern.compile("^[\\-–].+");
+    private static final Pattern SUB_BULLET = Pattern.compile("^[o▪→]\\s+.*");
+    private static final Pattern BULLET_PREFIX = Pattern.compile("^[•\\-–\\s]+");
+    private static final Pattern SUB_BULLET_PREFIX = Pattern.compile("^[o▪→\\s]+");
+    private static final Pattern INSTRUCTION = Pattern.compile("(?i)^\\s*(?:"
+            + "summarize the primary purpose|indicate the primary responsibilities|indicate qualifications and skills"
+            + "|licenses, certifications|provide the primary groups|include any external interactions"
+            + "|summary of resources managed|this section describes|describe required knowledge"
+            + "|provide a brief overview|\\(not all roles will have non-standard work schedule"
+            + "|include any work schedule, travel|types of requirements|any criteria indicated must be job-related)");
+
+    // The former extractBulletsOrPlainSection body, applied to an already located section
+    private static String legacyFormat(String section, ExtractionReport report) {
+        StringBuilder result = new StringBuilder();
+        String raw = section.trim();
+        String[] lines = LINE_BREAK.split(raw);
+
+        StringBuilder currentBullet = new StringBuilder();
+        boolean bulletFound = false;
+        boolean subBulletDetected = false;
+
+        for (String line : lines) {
+            String clean = line.trim();
+            if (clean.length() < 3 || JUNK_LINE.matcher(clean).matches()) {
+                report.lineSkipped();
+                continue;
+            }
+            if (INSTRUCTION.matcher(clean).find()) {
+                report.instructionSkipped(clean);
+                continue;
+            }
+            if (SUBHEADING.matcher(clean).matches()) {
+                if (!currentBullet.isEmpty()) {
+                    result.append("> ").append(currentBullet.toString().trim()).append("\n");
+                    currentBullet.setLength(0);
+                }
+                result.append("\n ").append(clean.replace(":", "").trim().toUpperCase()).append("\n");
+                bulletFound = false;
+                continue;
+            }
+            if (clean.startsWith("•") || clean.startsWith("\uF0B7") || DASH_BULLET.matcher(clean).matches()) {
+                bulletFound = true;
+                subBulletDetected = false;
+                if (!currentBullet.isEmpty()) {
+                    result.append("> ").append(currentBullet.toString().trim()).append("\n");
+                    currentBullet.setLength(0);
+                }
+                clean = BULLET_PREFIX.matcher(clean).replaceFirst("");
+                currentBullet.append(clean).append(" ");
+            } else if (SUB_BULLET.matcher(clean).matches()) {
+                if (!currentBullet.isEmpty()) {
+                    result.append("> ").append(currentBullet.toString().trim()).append("\n");
+                    currentBullet.setLength(0);
+                }
+                clean = SUB_BULLET_PREFIX.matcher(clean).replaceFirst("");
+                result.append("   * ").append(clean.trim()).append("\n");
+                subBulletDetected = true;
+            } else if (bulletFound && !subBulletDetected && currentBullet.length() > 0) {
+                currentBullet.append(clean).append(" ");
+            } else if (!bulletFound && !clean.isEmpty()) {
+                result.append(clean).append("\n");
+            }
+        }
+        if (!currentBullet.isEmpty()) {
+            result.append("> ").append(currentBullet.toString().trim());
+        }
+        return result.toString().trim();
+    }
+}
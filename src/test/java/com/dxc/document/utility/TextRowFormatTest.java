@@ -0,0 +1,74 @@
+package com.dxc.document.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TextRowFormatTest {
+
+    private static final List<String> HEADERS = List.of("JOB TITLE", "SUMMARY, \"short\"", "SKILLS");
+
+    private static Map<String, String> row() {
+        Map<String, String> row = new LinkedHashMap<>();
+        row.put("JOB TITLE", "Analyst");
+        row.put("SUMMARY, \"short\"", "Says \"hi\", then leaves");
+        row.put("SKILLS", "> Java\r\n> SQL\n   * Oracle");
+        return row;
+    }
+
+    @Test
+    void csvQuotesFieldsAndGuardsFormulas() throws IOException {
+        Map<String, String> formula = Map.of("JOB TITLE", "=HYPERLINK(\"x\")", "SKILLS", "-1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TextRowFormat.CSV.write(out, HEADERS, List.of(row(), formula).iterator());
+
+        assertEquals("JOB TITLE,\"SUMMARY, \"\"short\"\"\",SKILLS\r\n"
+                + "Analyst,\"Says \"\"hi\"\", then leaves\",\"> Java\r\n> SQL\n   * Oracle\"\r\n"
+                + "\"'=HYPERLINK(\"\"x\"\")\",,'-1\r\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals(HEADERS, TextRowFormat.CSV.readHeader(in(out.toString(StandardCharsets.UTF_8))));
+
+        List<Map<String, String>> read = new ArrayList<>();
+        TextRowFormat.CSV.readRows(in(out.toString(StandardCharsets.UTF_8)), read::add);
+        assertEquals(row(), read.get(0));
+        assertEquals("=HYPERLINK(\"x\")", read.get(1).get("JOB TITLE"));
+        assertEquals("-1", read.get(1).get("SKILLS"));
+    }
+
+    @Test
+    void csvCompleteLengthIgnoresLineBreaksInsideQuotes() throws IOException {
+        StringBuilder text = new StringBuilder();
+        TextRowFormat.CSV.appendHeader(text, HEADERS);
+        TextRowFormat.CSV.appendRow(text, new HeaderLookup(HEADERS), row());
+        int complete = text.toString().getBytes(StandardCharsets.UTF_8).length;
+
+        assertEquals(complete, TextRowFormat.CSV.completeLength(in(text.toString())));
+        assertEquals(complete, TextRowFormat.CSV.completeLength(in(text + "Torn,\"> Java\r\n> S")));
+    }
+
+    @Test
+    void ndjsonWritesOneEscapedObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TextRowFormat.NDJSON.write(out, HEADERS, List.of(row()).iterator());
+        String text = out.toString(StandardCharsets.UTF_8);
+
+        assertEquals("{\"JOB TITLE\":\"Analyst\",\"SUMMARY, \\\"short\\\"\":\"Says \\\"hi\\\", then leaves\","
+                + "\"SKILLS\":\"> Java\\r\\n> SQL\\n   * Oracle\"}\n", text);
+        assertEquals(text.length(), TextRowFormat.NDJSON.completeLength(in(text + "{\"JOB")));
+        assertNull(TextRowFormat.NDJSON.readHeader(in(text)));
+    }
+
+    private static InputStream in(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}